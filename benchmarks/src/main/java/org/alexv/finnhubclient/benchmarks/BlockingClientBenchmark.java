@@ -0,0 +1,129 @@
+package org.alexv.finnhubclient.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.alexv.finnhubclient.client.FinnhubBlockingClient;
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.ratelimit.RateLimiter;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.io.CloseMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@value #CALLERS} concurrent callers each fetching one quote, against a stub answering after
+ * {@code serverDelay} ms: the async API, the blocking client on virtual threads, and the blocking client on a
+ * fixed platform pool as the baseline it replaces. Each operation is the whole fan-out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingClientBenchmark {
+
+    static final int CALLERS = 10_000;
+    static final int CONNECTIONS = 64;
+    static final int PLATFORM_THREADS = 200;
+
+    @Param({"5"})
+    public long serverDelay;
+
+    private StubServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private FinnhubClient client;
+    private FinnhubBlockingClient blockingClient;
+    private ExecutorService platformPool;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(serverDelay);
+
+        HttpHost stub = new HttpHost("http", "localhost", server.port());
+        httpClient = FinnhubClient.instrument(HttpAsyncClients.custom())
+                .setRoutePlanner((target, context) -> new HttpRoute(stub))
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(CONNECTIONS)
+                        .setMaxConnTotal(CONNECTIONS)
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+        client = new FinnhubClient(httpClient, "benchmark", new ObjectMapper());
+        client.setRateLimiter(RateLimiter.unlimited());
+        blockingClient = client.blocking();
+        platformPool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformPool.shutdownNow();
+        httpClient.close(CloseMode.IMMEDIATE);
+        server.close();
+    }
+
+    @Benchmark
+    public Object async() {
+        String prefix = prefix();
+        CompletableFuture<?>[] quotes = new CompletableFuture<?>[CALLERS];
+        for (int i = 0; i < CALLERS; i++) {
+            quotes[i] = client.getQuote(prefix + i);
+        }
+        return CompletableFuture.allOf(quotes).join();
+    }
+
+    @Benchmark
+    public Object blockingOnVirtualThreads() throws InterruptedException {
+        return blocking(Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    @Benchmark
+    public Object blockingOnPlatformPool() throws InterruptedException {
+        return blocking(platformPool, false);
+    }
+
+    private Object blocking(ExecutorService executor, boolean owned) throws InterruptedException {
+        String prefix = prefix();
+        CompletableFuture<?>[] quotes = new CompletableFuture<?>[CALLERS];
+        for (int i = 0; i < CALLERS; i++) {
+            String symbol = prefix + i;
+            quotes[i] = CompletableFuture.supplyAsync(() -> blockingClient.getQuote(symbol), executor);
+        }
+        try {
+            return CompletableFuture.allOf(quotes).join();
+        } finally {
+            if (owned) {
+                executor.shutdown();
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        }
+    }
+
+    /**
+     * Fresh symbols each round so nothing is served by request coalescing.
+     */
+    private String prefix() {
+        return "R" + round++ + "S";
+    }
+}
@@ -0,0 +1,128 @@
+package org.alexv.finnhubclient.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.model.CandleSeries;
+import org.alexv.finnhubclient.model.Quote;
+import org.alexv.finnhubclient.ratelimit.RateLimiter;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.io.CloseMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end request cost through {@link FinnhubClient} against a {@link StubServer} on loopback, with
+ * rate limiting turned off. Throughput is measured with {@value #IN_FLIGHT} requests in flight; latency
+ * benchmarks use sample mode, so the JSON results carry p50/p99/p99.9.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientBenchmark {
+
+    static final int IN_FLIGHT = 64;
+
+    /**
+     * Simulated server time per request, in milliseconds.
+     */
+    @Param({"0"})
+    public long serverDelay;
+
+    private StubServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private FinnhubClient client;
+    private long from;
+    private long to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubServer(serverDelay);
+
+        HttpHost stub = new HttpHost("http", "localhost", server.port());
+        httpClient = FinnhubClient.instrument(HttpAsyncClients.custom())
+                .setRoutePlanner((target, context) -> new HttpRoute(stub))
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(IN_FLIGHT)
+                        .setMaxConnTotal(IN_FLIGHT)
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+        client = new FinnhubClient(httpClient, "benchmark", new ObjectMapper());
+        client.setRateLimiter(RateLimiter.unlimited());
+
+        to = 1_600_000_000L + 60L * Payloads.CANDLE_BARS;
+        from = 1_600_000_000L;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close(CloseMode.IMMEDIATE);
+        server.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(IN_FLIGHT)
+    public Object quoteThroughput() {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[IN_FLIGHT];
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            requests[i] = client.getQuote("SYM" + i);
+        }
+        return CompletableFuture.allOf(requests).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(8)
+    public Quote quoteLatency(Caller caller) {
+        return client.getQuote(caller.symbol).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public CandleSeries candleSeries10kLatency() {
+        return client.getCandleSeries("AAPL", "1", from, to).join();
+    }
+
+    /**
+     * Gives each benchmark thread its own symbol so concurrent calls are not coalesced into one request.
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        String symbol;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            symbol = "SYM" + THREADS.incrementAndGet();
+        }
+    }
+}
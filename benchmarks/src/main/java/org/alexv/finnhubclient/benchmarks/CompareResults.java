@@ -0,0 +1,95 @@
+package org.alexv.finnhubclient.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and exits with status 1 when any benchmark regressed by more than the
+ * threshold percentage (default {@value #DEFAULT_THRESHOLD}). Sample-mode benchmarks are also compared on p99.
+ *
+ * <pre>java -cp benchmarks.jar org.alexv.finnhubclient.benchmarks.CompareResults baseline.json current.json [threshold]</pre>
+ */
+public final class CompareResults {
+
+    static final double DEFAULT_THRESHOLD = 10;
+
+    private static final String P99 = "99.0";
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW    %s %.3f %s%n", entry.getKey(), entry.getValue().value, entry.getValue().unit);
+                continue;
+            }
+
+            Score after = entry.getValue();
+            double change = after.changeFrom(before);
+            boolean regressed = change < -threshold;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-6s %s %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "WORSE" : "OK",
+                    entry.getKey(), before.value, after.value, after.unit, change);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String name = run.path("benchmark").asText() + params(run.path("params"));
+            JsonNode metric = run.path("primaryMetric");
+            String unit = metric.path("scoreUnit").asText();
+
+            scores.put(name, new Score(metric.path("score").asDouble(), unit));
+            JsonNode p99 = metric.path("scorePercentiles").path(P99);
+            if ("sample".equals(run.path("mode").asText()) && !p99.isMissingNode()) {
+                scores.put(name + " p99", new Score(p99.asDouble(), unit));
+            }
+        }
+        return scores;
+    }
+
+    private static String params(JsonNode params) {
+        if (params.isMissingNode() || params.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder text = new StringBuilder("{");
+        params.fields().forEachRemaining(param -> text.append(text.length() > 1 ? "," : "")
+                .append(param.getKey()).append('=').append(param.getValue().asText()));
+        return text.append('}').toString();
+    }
+
+    private record Score(double value, String unit) {
+
+        /**
+         * Improvement over {@code before} in percent; negative is worse, whichever way the unit points.
+         */
+        double changeFrom(Score before) {
+            double change = (value - before.value) / before.value * 100;
+            return unit.startsWith("ops/") ? change : -change;
+        }
+    }
+}
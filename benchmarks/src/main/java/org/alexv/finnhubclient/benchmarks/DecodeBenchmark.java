@@ -0,0 +1,79 @@
+package org.alexv.finnhubclient.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.alexv.finnhubclient.model.Candle;
+import org.alexv.finnhubclient.model.CandleSeries;
+import org.alexv.finnhubclient.model.EnrichedSymbol;
+import org.alexv.finnhubclient.model.Quote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding cost of the model classes on realistic payloads, without any networking.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodeBenchmark {
+
+    private byte[] quote;
+    private byte[] candles;
+    private byte[] symbols;
+
+    private ObjectReader quoteReader;
+    private ObjectReader candleReader;
+    private ObjectReader candleSeriesReader;
+    private ObjectReader symbolsReader;
+
+    @Setup
+    public void setUp() {
+        quote = Payloads.quote();
+        candles = Payloads.candles(Payloads.CANDLE_BARS);
+        symbols = Payloads.symbols(Payloads.US_SYMBOLS);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        quoteReader = objectMapper.readerFor(Quote.class);
+        candleReader = objectMapper.readerFor(Candle.class);
+        candleSeriesReader = objectMapper.readerFor(CandleSeries.class);
+        symbolsReader = objectMapper.readerFor(new TypeReference<List<EnrichedSymbol>>() {
+        });
+    }
+
+    @Benchmark
+    public Quote quote() throws IOException {
+        return quoteReader.readValue(quote);
+    }
+
+    @Benchmark
+    public Candle candle10k() throws IOException {
+        return candleReader.readValue(candles);
+    }
+
+    @Benchmark
+    public CandleSeries candleSeries10k() throws IOException {
+        return candleSeriesReader.readValue(candles);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<EnrichedSymbol> usSymbols() throws IOException {
+        return symbolsReader.readValue(symbols);
+    }
+}
@@ -0,0 +1,100 @@
+package org.alexv.finnhubclient.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Deterministic response bodies shaped like the real API's, so runs are comparable across machines and commits.
+ */
+final class Payloads {
+
+    static final int CANDLE_BARS = 10_000;
+    static final int US_SYMBOLS = 28_000;
+
+    private static final long SEED = 42;
+    private static final String[] TYPES = {"Common Stock", "ETP", "ADR", "REIT", "Unit", "Warrant"};
+    private static final String[] MICS = {"XNYS", "XNAS", "ARCX", "BATS", "OOTC"};
+
+    private Payloads() {
+    }
+
+    static byte[] quote() {
+        return ("{\"c\":189.84,\"d\":-1.45,\"dp\":-0.758,\"h\":191.52,\"l\":188.96,\"o\":190.9,"
+                + "\"pc\":191.29,\"t\":1700683200}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] candles(int bars) {
+        Random random = new Random(SEED);
+        double[] close = new double[bars];
+        double price = 150;
+        for (int i = 0; i < bars; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            close[i] = round(price);
+        }
+
+        StringBuilder json = new StringBuilder(bars * 64);
+        json.append("{\"c\":");
+        appendColumn(json, close, 0);
+        json.append(",\"h\":");
+        appendColumn(json, close, 0.75);
+        json.append(",\"l\":");
+        appendColumn(json, close, -0.75);
+        json.append(",\"o\":");
+        appendColumn(json, close, 0.25);
+        json.append(",\"s\":\"ok\",\"t\":[");
+        long time = 1_600_000_000L;
+        for (int i = 0; i < bars; i++) {
+            json.append(i == 0 ? "" : ",").append(time + 60L * i);
+        }
+        json.append("],\"v\":[");
+        for (int i = 0; i < bars; i++) {
+            json.append(i == 0 ? "" : ",").append(1_000 + random.nextInt(2_000_000));
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] symbols(int count) {
+        Random random = new Random(SEED);
+        StringBuilder json = new StringBuilder(count * 220);
+        json.append('[');
+        for (int i = 0; i < count; i++) {
+            String symbol = ticker(i);
+            String figi = "BBG" + String.format("%09d", i);
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"currency\":\"USD\",\"description\":\"").append(symbol).append(" HOLDINGS INC\"")
+                    .append(",\"displaySymbol\":\"").append(symbol).append('"')
+                    .append(",\"figi\":\"").append(figi).append('"')
+                    .append(",\"isin\":null")
+                    .append(",\"mic\":\"").append(MICS[random.nextInt(MICS.length)]).append('"')
+                    .append(",\"shareClassFIGI\":\"BBG0").append(String.format("%08d", i)).append('"')
+                    .append(",\"symbol\":\"").append(symbol).append('"')
+                    .append(",\"symbol2\":\"\"")
+                    .append(",\"type\":\"").append(TYPES[random.nextInt(TYPES.length)]).append("\"}");
+        }
+        json.append(']');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendColumn(StringBuilder json, double[] close, double offset) {
+        json.append('[');
+        for (int i = 0; i < close.length; i++) {
+            json.append(i == 0 ? "" : ",").append(round(close[i] + offset));
+        }
+        json.append(']');
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String ticker(int index) {
+        StringBuilder ticker = new StringBuilder(5);
+        int remaining = index;
+        do {
+            ticker.append((char) ('A' + remaining % 26));
+            remaining = remaining / 26 - 1;
+        } while (remaining >= 0);
+        return ticker.reverse().toString();
+    }
+}
@@ -0,0 +1,70 @@
+package org.alexv.finnhubclient.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.alexv.finnhubclient.client.Endpoint;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loopback HTTP server answering the REST endpoints with canned payloads, optionally after a fixed delay
+ * standing in for server time.
+ */
+final class StubServer implements AutoCloseable {
+
+    static {
+        // Headers and body go out in separate writes; without TCP_NODELAY every response waits out a delayed ACK.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long delayMillis;
+
+    StubServer(long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+
+        serve(Endpoint.QUOTE, Payloads.quote());
+        serve(Endpoint.CANDLE, Payloads.candles(Payloads.CANDLE_BARS));
+        serve(Endpoint.SYMBOL, Payloads.symbols(Payloads.US_SYMBOLS));
+
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void serve(Endpoint endpoint, byte[] body) {
+        server.createContext(URI.create(endpoint.url()).getPath(), exchange -> respond(exchange, body));
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try (exchange) {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package org.alexv.finnhubclient.backfill;
+
+import lombok.Builder;
+import lombok.Value;
+import org.alexv.finnhubclient.model.Resolution;
+import org.alexv.finnhubclient.ratelimit.Priority;
+
+@Value
+@Builder
+public class BackfillConfig {
+
+    @Builder.Default
+    int maxConcurrency = 4;
+
+    @Builder.Default
+    int barsPerWindow = 5_000;
+
+    @Builder.Default
+    Priority priority = Priority.LOW;
+
+    public static BackfillConfig defaults() {
+        return BackfillConfig.builder().build();
+    }
+
+    public long windowSeconds(Resolution resolution) {
+        return resolution.duration().getSeconds() * barsPerWindow;
+    }
+}
@@ -0,0 +1,10 @@
+package org.alexv.finnhubclient.backfill;
+
+@FunctionalInterface
+public interface BackfillListener {
+
+    BackfillListener NONE = progress -> {
+    };
+
+    void onProgress(BackfillProgress progress);
+}
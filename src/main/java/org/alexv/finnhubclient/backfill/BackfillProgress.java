@@ -0,0 +1,16 @@
+package org.alexv.finnhubclient.backfill;
+
+import lombok.Value;
+
+@Value
+public class BackfillProgress {
+
+    String symbol;
+    int completedWindows;
+    int totalWindows;
+    long candles;
+
+    public boolean isDone() {
+        return completedWindows == totalWindows;
+    }
+}
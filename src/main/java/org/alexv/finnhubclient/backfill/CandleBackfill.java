@@ -0,0 +1,233 @@
+package org.alexv.finnhubclient.backfill;
+
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.model.CandleSeries;
+import org.alexv.finnhubclient.model.Resolution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Splits large candle ranges into windows sized for the resolution, fetches them concurrently and
+ * merges the windows back into one ordered, de-duplicated {@link CandleSeries}. The concurrency limit
+ * is shared by every backfill started on the same instance.
+ * <p>
+ * Windows are retried by the client as its {@code CallOptions} say, not again here. The first window that still
+ * fails fails the backfill and cancels its other windows, running or waiting; cancelling the returned future does
+ * the same.
+ */
+public class CandleBackfill {
+
+    private final FinnhubClient client;
+    private final BackfillConfig config;
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public CandleBackfill(FinnhubClient client) {
+        this(client, BackfillConfig.defaults());
+    }
+
+    public CandleBackfill(FinnhubClient client, BackfillConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    public CompletableFuture<CandleSeries> backfill(String symbol, Resolution resolution, long fromEpoch, long toEpoch) {
+        return backfill(symbol, resolution, fromEpoch, toEpoch, BackfillListener.NONE);
+    }
+
+    public CompletableFuture<CandleSeries> backfill(String symbol, Resolution resolution, long fromEpoch, long toEpoch,
+                                                    BackfillListener listener) {
+        List<long[]> windows = windows(resolution, fromEpoch, toEpoch);
+        CandleSeries[] results = new CandleSeries[windows.size()];
+        List<CompletableFuture<CandleSeries>> fetches = new ArrayList<>(windows.size());
+        CompletableFuture<CandleSeries> result = new CompletableFuture<>();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong candles = new AtomicLong();
+
+        if (windows.isEmpty()) {
+            result.complete(CandleSeries.empty());
+            return result;
+        }
+
+        for (long[] window : windows) {
+            fetches.add(submit(() -> client.getCandleSeries(symbol, resolution.code(), window[0], window[1],
+                    config.getPriority())));
+        }
+        cancelOnFailure(result, fetches);
+
+        for (int i = 0; i < fetches.size(); i++) {
+            int index = i;
+            fetches.get(i).whenComplete((series, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                    return;
+                }
+                results[index] = series;
+                int done = completed.incrementAndGet();
+                listener.onProgress(new BackfillProgress(symbol, done, windows.size(), candles.addAndGet(series.size())));
+                if (done == windows.size()) {
+                    result.complete(merge(results));
+                }
+            });
+        }
+        return result;
+    }
+
+    public CompletableFuture<Map<String, CandleSeries>> backfill(Collection<String> symbols, Resolution resolution,
+                                                                 long fromEpoch, long toEpoch) {
+        return backfill(symbols, resolution, fromEpoch, toEpoch, BackfillListener.NONE);
+    }
+
+    public CompletableFuture<Map<String, CandleSeries>> backfill(Collection<String> symbols, Resolution resolution,
+                                                                 long fromEpoch, long toEpoch, BackfillListener listener) {
+        Map<String, CompletableFuture<CandleSeries>> futures = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            futures.put(symbol, backfill(symbol, resolution, fromEpoch, toEpoch, listener));
+        }
+
+        CompletableFuture<Map<String, CandleSeries>> result = new CompletableFuture<>();
+        cancelOnFailure(result, futures.values());
+        for (CompletableFuture<CandleSeries> future : futures.values()) {
+            future.whenComplete((series, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                }
+            });
+        }
+
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture<?>[]::new)).thenRun(() -> {
+            Map<String, CandleSeries> series = new LinkedHashMap<>();
+            futures.forEach((symbol, future) -> series.put(symbol, future.join()));
+            result.complete(series);
+        });
+        return result;
+    }
+
+    public int activeWindows() {
+        return active.get();
+    }
+
+    public int pendingWindows() {
+        return pending.size();
+    }
+
+    List<long[]> windows(Resolution resolution, long fromEpoch, long toEpoch) {
+        long step = Math.max(1, config.windowSeconds(resolution));
+        List<long[]> windows = new ArrayList<>();
+
+        for (long start = fromEpoch; start <= toEpoch; start += step) {
+            windows.add(new long[]{start, Math.min(toEpoch, start + step - 1)});
+            if (start > Long.MAX_VALUE - step) {
+                break;
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Once {@code result} fails or is cancelled, cancels whatever of {@code parts} is still running or waiting.
+     */
+    private static void cancelOnFailure(CompletableFuture<?> result, Collection<? extends CompletableFuture<?>> parts) {
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                for (CompletableFuture<?> part : parts) {
+                    part.cancel(true);
+                }
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        pending.add(() -> {
+            if (result.isDone()) {
+                // cancelled while waiting; its slot goes to the next window
+                active.decrementAndGet();
+                return;
+            }
+
+            CompletableFuture<T> started;
+            try {
+                started = task.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<T> running = started;
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    running.cancel(true);
+                }
+            });
+
+            // async so that windows answered synchronously (e.g. from the cache) do not recurse into drain()
+            started.whenCompleteAsync((value, error) -> {
+                active.decrementAndGet();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+                drain();
+            });
+        });
+        drain();
+
+        return result;
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int current = active.get();
+            if (current >= config.getMaxConcurrency()) {
+                return;
+            }
+            if (!active.compareAndSet(current, current + 1)) {
+                continue;
+            }
+
+            Runnable next = pending.poll();
+            if (next == null) {
+                active.decrementAndGet();
+                continue;
+            }
+            next.run();
+        }
+    }
+
+    private static CandleSeries merge(CandleSeries[] windows) {
+        int total = 0;
+        for (CandleSeries window : windows) {
+            total += window.size();
+        }
+
+        CandleSeries.Builder builder = CandleSeries.builder(total);
+        long last = Long.MIN_VALUE;
+
+        for (CandleSeries window : windows) {
+            for (int i = 0; i < window.size(); i++) {
+                long time = window.time(i);
+                if (time > last) {
+                    builder.add(time, window.open(i), window.high(i), window.low(i), window.close(i), window.volume(i));
+                    last = time;
+                }
+            }
+        }
+        return builder.build();
+    }
+}
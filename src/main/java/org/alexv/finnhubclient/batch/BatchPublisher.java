@@ -0,0 +1,141 @@
+package org.alexv.finnhubclient.batch;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Publishes one {@link SymbolResult} per symbol as soon as its request completes. A subscription
+ * never has more than {@code maxInFlight} requests running, and never starts more requests than
+ * its subscriber has asked for, so a slow subscriber slows down the fan-out instead of buffering it.
+ */
+public class BatchPublisher<T> implements Flow.Publisher<SymbolResult<T>> {
+
+    private final List<String> symbols;
+    private final Function<String, CompletableFuture<T>> loader;
+    private final int maxInFlight;
+
+    public BatchPublisher(Collection<String> symbols, Function<String, CompletableFuture<T>> loader, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.symbols = List.copyOf(new LinkedHashSet<>(symbols));
+        this.loader = loader;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super SymbolResult<T>> subscriber) {
+        BatchSubscription subscription = new BatchSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    private class BatchSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super SymbolResult<T>> subscriber;
+        private final Iterator<String> remaining = symbols.iterator();
+        private final Queue<SymbolResult<T>> ready = new ConcurrentLinkedQueue<>();
+        private final Queue<CompletableFuture<T>> running = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private long emitted;
+        private long started;
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private boolean done;
+
+        private BatchSubscription(Flow.Subscriber<? super SymbolResult<T>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " items, expected a positive number");
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            for (CompletableFuture<T> future : running) {
+                future.cancel(true);
+            }
+        }
+
+        // serialises signals to the subscriber; whichever thread gets here first emits for the others
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            do {
+                if (done || cancelled) {
+                    ready.clear();
+                    continue;
+                }
+                if (invalidRequest != null) {
+                    done = true;
+                    cancel();
+                    subscriber.onError(invalidRequest);
+                    continue;
+                }
+
+                SymbolResult<T> result;
+                while (emitted < requested.get() && (result = ready.poll()) != null) {
+                    emitted++;
+                    subscriber.onNext(result);
+                }
+
+                while (!cancelled && remaining.hasNext() && inFlight.get() < maxInFlight && started < requested.get()) {
+                    started++;
+                    start(remaining.next());
+                }
+
+                if (!remaining.hasNext() && inFlight.get() == 0 && ready.isEmpty() && !cancelled) {
+                    done = true;
+                    subscriber.onComplete();
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void start(String symbol) {
+            inFlight.incrementAndGet();
+
+            CompletableFuture<T> future;
+            try {
+                future = loader.apply(symbol);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            running.add(future);
+
+            CompletableFuture<T> tracked = future;
+            future.whenComplete((value, error) -> {
+                running.remove(tracked);
+                ready.add(error == null ? SymbolResult.success(symbol, value) : SymbolResult.failure(symbol, unwrap(error)));
+                inFlight.decrementAndGet();
+                drain();
+            });
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,68 @@
+package org.alexv.finnhubclient.batch;
+
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Outcome of a batch call: the values that loaded and, separately, the error of every symbol that did not.
+ * Both maps keep the order in which the results arrived.
+ */
+@Value
+public class BatchResult<T> {
+
+    Map<String, T> values;
+    Map<String, Throwable> failures;
+
+    public static <T> CompletableFuture<BatchResult<T>> collect(Flow.Publisher<SymbolResult<T>> publisher) {
+        CompletableFuture<BatchResult<T>> futureResult = new CompletableFuture<>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private final Map<String, T> values = new LinkedHashMap<>();
+            private final Map<String, Throwable> failures = new LinkedHashMap<>();
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(SymbolResult<T> result) {
+                if (result.isSuccess()) {
+                    values.put(result.getSymbol(), result.getValue());
+                } else {
+                    failures.put(result.getSymbol(), result.getError());
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                futureResult.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                futureResult.complete(new BatchResult<>(Collections.unmodifiableMap(values),
+                        Collections.unmodifiableMap(failures)));
+            }
+        });
+
+        return futureResult;
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    public T get(String symbol) {
+        return values.get(symbol);
+    }
+
+    public int size() {
+        return values.size() + failures.size();
+    }
+}
@@ -0,0 +1,26 @@
+package org.alexv.finnhubclient.batch;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SymbolResult<T> {
+
+    String symbol;
+    T value;
+    Throwable error;
+
+    public static <T> SymbolResult<T> success(String symbol, T value) {
+        return new SymbolResult<>(symbol, value, null);
+    }
+
+    public static <T> SymbolResult<T> failure(String symbol, Throwable error) {
+        return new SymbolResult<>(symbol, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
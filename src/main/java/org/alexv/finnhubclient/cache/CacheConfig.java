@@ -0,0 +1,35 @@
+package org.alexv.finnhubclient.cache;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.alexv.finnhubclient.client.Endpoint;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Value
+@Builder
+public class CacheConfig {
+
+    @Singular
+    Map<Endpoint, Duration> ttls;
+
+    @Builder.Default
+    Duration staleWhileRevalidate = Duration.ZERO;
+
+    @Builder.Default
+    int maxEntries = 10_000;
+
+    public static CacheConfig defaults() {
+        return CacheConfig.builder()
+                .ttl(Endpoint.QUOTE, Duration.ofSeconds(5))
+                .ttl(Endpoint.COMPANY_PROFILE, Duration.ofHours(6))
+                .ttl(Endpoint.SYMBOL, Duration.ofDays(1))
+                .build();
+    }
+
+    public Duration ttl(Endpoint endpoint) {
+        return ttls.getOrDefault(endpoint, Duration.ZERO);
+    }
+}
@@ -0,0 +1,42 @@
+package org.alexv.finnhubclient.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CacheLookup<T> {
+
+    private static final CacheLookup<?> MISS = new CacheLookup<>(State.MISS, null);
+
+    private final State state;
+    private final T value;
+
+    public static <T> CacheLookup<T> fresh(T value) {
+        return new CacheLookup<>(State.FRESH, value);
+    }
+
+    public static <T> CacheLookup<T> stale(T value) {
+        return new CacheLookup<>(State.STALE, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CacheLookup<T> miss() {
+        return (CacheLookup<T>) MISS;
+    }
+
+    public boolean isFresh() {
+        return state == State.FRESH;
+    }
+
+    public boolean isStale() {
+        return state == State.STALE;
+    }
+
+    public enum State {
+        FRESH,
+        STALE,
+        MISS
+    }
+}
@@ -0,0 +1,18 @@
+package org.alexv.finnhubclient.cache;
+
+import lombok.Value;
+
+@Value
+public class CacheStats {
+
+    long hits;
+    long staleHits;
+    long misses;
+    long evictions;
+    int size;
+
+    public double getHitRatio() {
+        long requests = hits + staleHits + misses;
+        return requests == 0 ? 0 : (double) (hits + staleHits) / requests;
+    }
+}
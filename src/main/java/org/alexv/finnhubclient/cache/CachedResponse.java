@@ -0,0 +1,55 @@
+package org.alexv.finnhubclient.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * A response body stored by {@link DiskResponseCache}, exactly as it came off the wire, with what is needed to
+ * replay or revalidate it. It holds the entry file open, so that the body can be read even after the entry was
+ * evicted or replaced; {@link #close()} it once the exchange is over.
+ */
+@Value
+public class CachedResponse implements Closeable {
+
+    Path path;
+    String key;
+    String etag;
+    String lastModified;
+    String contentEncoding;
+    String contentType;
+
+    /**
+     * When the server last confirmed the body, by sending it or by answering 304.
+     */
+    Instant validatedAt;
+
+    long bodyOffset;
+    long bodyLength;
+
+    /**
+     * The entry file as it was at lookup; the body starts at {@code bodyOffset}.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    FileChannel body;
+
+    public boolean isRevalidatable() {
+        return etag != null || lastModified != null;
+    }
+
+    @Override
+    public void close() {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // nothing was written through it that could be lost
+        }
+    }
+}
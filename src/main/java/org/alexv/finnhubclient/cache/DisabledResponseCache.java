@@ -0,0 +1,35 @@
+package org.alexv.finnhubclient.cache;
+
+import org.alexv.finnhubclient.client.RequestKey;
+
+final class DisabledResponseCache implements ResponseCache {
+
+    static final DisabledResponseCache INSTANCE = new DisabledResponseCache();
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0);
+
+    private DisabledResponseCache() {
+    }
+
+    @Override
+    public <T> CacheLookup<T> get(RequestKey key) {
+        return CacheLookup.miss();
+    }
+
+    @Override
+    public void put(RequestKey key, Object value) {
+    }
+
+    @Override
+    public void invalidate(RequestKey key) {
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return EMPTY;
+    }
+}
@@ -0,0 +1,48 @@
+package org.alexv.finnhubclient.cache;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.alexv.finnhubclient.client.Endpoint;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+@Value
+@Builder
+public class DiskCacheConfig {
+
+    Path directory;
+
+    /**
+     * Endpoints to cache and how long a stored response is used without asking the server. Past that it is
+     * revalidated when the server sent an ETag or Last-Modified, and fetched again otherwise.
+     */
+    @Singular
+    Map<Endpoint, Duration> ttls;
+
+    /**
+     * Upper bound of the stored bodies; the least recently used responses are evicted beyond it.
+     */
+    @Builder.Default
+    long maxBytes = 512L * 1024 * 1024;
+
+    /**
+     * Threads that read, decompress and parse stored bodies, keeping that work off the callers and the IO reactor.
+     */
+    @Builder.Default
+    int replayThreads = 2;
+
+    public static DiskCacheConfig defaults(Path directory) {
+        return DiskCacheConfig.builder()
+                .directory(directory)
+                .ttl(Endpoint.COMPANY_PROFILE, Duration.ofHours(6))
+                .ttl(Endpoint.SYMBOL, Duration.ofDays(1))
+                .build();
+    }
+
+    public Duration ttl(Endpoint endpoint) {
+        return ttls.getOrDefault(endpoint, Duration.ZERO);
+    }
+}
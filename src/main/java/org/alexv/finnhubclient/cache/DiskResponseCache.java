@@ -0,0 +1,459 @@
+package org.alexv.finnhubclient.cache;
+
+import org.alexv.finnhubclient.client.Endpoint;
+import org.alexv.finnhubclient.client.RequestKey;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response cache on local disk, shared by every process pointed at the same directory and surviving restarts.
+ * It sits under the client's transport: each entry is one file holding a small header and the body exactly as it
+ * came off the wire, still gzip-compressed, so it costs what it cost on the network. Entries are keyed by the
+ * request without its token, replaced atomically and evicted least recently used once the directory exceeds
+ * {@link DiskCacheConfig#getMaxBytes()}; the file modification time records the last use across restarts.
+ * Stored bodies are replayed on the cache's own daemon threads.
+ */
+public class DiskResponseCache implements AutoCloseable {
+
+    static final int MAGIC = 0x46484443;
+    static final int VERSION = 1;
+    static final int FIXED_HEADER_BYTES = 28;
+
+    private static final long VALIDATED_AT_OFFSET = 8;
+    private static final long BODY_LENGTH_OFFSET = 16;
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Duration ORPHAN_AGE = Duration.ofHours(1);
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private final DiskCacheConfig config;
+    private final Path directory;
+    private final ExecutorService replayExecutor;
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DiskResponseCache(Path directory) {
+        this(DiskCacheConfig.defaults(directory));
+    }
+
+    public DiskResponseCache(DiskCacheConfig config) {
+        this.config = config;
+        this.directory = config.getDirectory();
+        try {
+            Files.createDirectories(directory);
+            scan();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.replayExecutor = Executors.newFixedThreadPool(Math.max(1, config.getReplayThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "finnhub-disk-cache-" + THREADS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Where stored bodies are read and fed to response consumers; blocking file IO and parsing must not run on
+     * the IO reactor or the common pool.
+     */
+    public Executor getReplayExecutor() {
+        return replayExecutor;
+    }
+
+    /**
+     * Stops the replay threads. Entries stay on disk for the next instance.
+     */
+    @Override
+    public void close() {
+        replayExecutor.shutdown();
+    }
+
+    public boolean isCacheable(Endpoint endpoint) {
+        return config.ttl(endpoint).toNanos() > 0;
+    }
+
+    /**
+     * The stored response for the request, or {@code null}. The caller closes it. A stored file that is torn or
+     * belongs to another request is deleted. This blocks on file IO, so the client calls it on the replay executor.
+     */
+    public CachedResponse lookup(RequestKey key) {
+        String name = fileName(key);
+        Path path = directory.resolve(name + ENTRY_SUFFIX);
+        CachedResponse cached;
+        try {
+            cached = read(path, key.toKeyString());
+        } catch (NoSuchFileException e) {
+            cached = null;
+        } catch (IOException e) {
+            delete(name, path);
+            cached = null;
+        }
+
+        if (cached == null) {
+            forget(name);
+            return null;
+        }
+
+        touch(name, path, cached.getBodyOffset() + cached.getBodyLength());
+        if (isFresh(cached)) {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    public boolean isFresh(CachedResponse cached) {
+        Duration ttl = config.ttl(endpoint(cached));
+        return cached.getValidatedAt().plus(ttl).isAfter(Instant.now());
+    }
+
+    /**
+     * Records that the server answered 304 for the stored response, making it fresh for another TTL.
+     */
+    public void revalidated(CachedResponse cached) {
+        staleHits.increment();
+        try {
+            // through the file looked up, so an entry replaced in the meantime keeps its own time
+            ByteBuffer validatedAt = ByteBuffer.allocate(Long.BYTES).putLong(Instant.now().toEpochMilli()).flip();
+            cached.getBody().write(validatedAt, VALIDATED_AT_OFFSET);
+        } catch (IOException e) {
+            // the entry is revalidated again next time
+        }
+    }
+
+    /**
+     * Starts storing a response that is about to stream in. Nothing is visible to lookups until
+     * {@link BodyWriter#commit()}.
+     */
+    public BodyWriter begin(RequestKey key, String etag, String lastModified, String contentEncoding,
+                            String contentType) throws IOException {
+        String name = fileName(key);
+        byte[] header = header(key.toKeyString(), etag, lastModified, contentEncoding, contentType);
+        Path temp = Files.createTempFile(directory, name + ".", TEMP_SUFFIX);
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+
+        ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(Instant.now().toEpochMilli())
+                .putLong(-1)
+                .putInt(header.length)
+                .flip();
+        BodyWriter writer = new BodyWriter(name, temp, channel, FIXED_HEADER_BYTES + header.length);
+        try {
+            writer.writeFully(fixed);
+            writer.writeFully(ByteBuffer.wrap(header));
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+        return writer;
+    }
+
+    public void invalidate(RequestKey key) {
+        String name = fileName(key);
+        delete(name, directory.resolve(name + ENTRY_SUFFIX));
+    }
+
+    public void clear() {
+        List<String> names;
+        synchronized (sizes) {
+            names = new ArrayList<>(sizes.keySet());
+        }
+        for (String name : names) {
+            delete(name, directory.resolve(name + ENTRY_SUFFIX));
+        }
+    }
+
+    /**
+     * Hits are answered without the network, stale hits by a 304, and misses count bodies downloaded in full.
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (sizes) {
+            size = sizes.size();
+        }
+        return new CacheStats(hits.sum(), staleHits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Bytes taken by the entries this process knows of.
+     */
+    public long getSizeBytes() {
+        synchronized (sizes) {
+            return totalBytes;
+        }
+    }
+
+    private void scan() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        Instant orphaned = Instant.now().minus(ORPHAN_AGE);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(ENTRY_SUFFIX)) {
+                    entries.add(file);
+                } else if (name.endsWith(TEMP_SUFFIX) && Files.getLastModifiedTime(file).toInstant().isBefore(orphaned)) {
+                    // left behind by a process that died mid-download
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        Map<Path, FileTime> usedAt = new LinkedHashMap<>();
+        for (Path entry : entries) {
+            usedAt.put(entry, Files.getLastModifiedTime(entry));
+        }
+        entries.sort(Comparator.comparing(usedAt::get));
+        for (Path entry : entries) {
+            String name = entry.getFileName().toString();
+            touch(name.substring(0, name.length() - ENTRY_SUFFIX.length()), null, Files.size(entry));
+        }
+    }
+
+    private static CachedResponse read(Path path, String key) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER_BYTES);
+            while (fixed.hasRemaining() && channel.read(fixed) >= 0) {
+                // keep reading
+            }
+            fixed.flip();
+            if (fixed.remaining() < FIXED_HEADER_BYTES || fixed.getInt() != MAGIC || fixed.getInt() != VERSION) {
+                throw new IOException("Not a cache entry: " + path);
+            }
+            long validatedAt = fixed.getLong();
+            long bodyLength = fixed.getLong();
+            int headerLength = fixed.getInt();
+            long bodyOffset = FIXED_HEADER_BYTES + (long) headerLength;
+            if (bodyLength < 0 || headerLength < 0 || channel.size() != bodyOffset + bodyLength) {
+                throw new IOException("Torn cache entry: " + path);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(headerLength);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(header.array()));
+            String storedKey = readString(in);
+            if (!key.equals(storedKey)) {
+                // a hash collision; the newer request takes the slot
+                channel.close();
+                return null;
+            }
+            return new CachedResponse(path, storedKey, readString(in), readString(in), readString(in),
+                    readString(in), Instant.ofEpochMilli(validatedAt), bodyOffset, bodyLength, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static byte[] header(String key, String etag, String lastModified, String contentEncoding,
+                                 String contentType) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, key);
+            writeString(out, etag);
+            writeString(out, lastModified);
+            writeString(out, contentEncoding);
+            writeString(out, contentType);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Endpoint endpoint(CachedResponse cached) {
+        String key = cached.getKey();
+        int query = key.indexOf('?');
+        return Endpoint.valueOf(query < 0 ? key : key.substring(0, query));
+    }
+
+    private void commit(String name, Path temp, long size) throws IOException {
+        Path path = directory.resolve(name + ENTRY_SUFFIX);
+        if (size > config.getMaxBytes()) {
+            Files.deleteIfExists(temp);
+            return;
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        misses.increment();
+        touch(name, null, size);
+    }
+
+    /**
+     * Marks the entry most recently used, evicting the least recently used ones beyond the size bound.
+     */
+    private void touch(String name, Path path, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (sizes) {
+            Long previous = sizes.put(name, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+
+            Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+            while (totalBytes > config.getMaxBytes() && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(name)) {
+                    continue;
+                }
+                totalBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+
+        for (String victim : evicted) {
+            evictions.increment();
+            try {
+                Files.deleteIfExists(directory.resolve(victim + ENTRY_SUFFIX));
+            } catch (IOException e) {
+                // dropped from the index all the same; a later scan picks it up again
+            }
+        }
+        if (path != null) {
+            try {
+                Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            } catch (IOException e) {
+                // only the order after a restart suffers
+            }
+        }
+    }
+
+    private void forget(String name) {
+        synchronized (sizes) {
+            Long size = sizes.remove(name);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+    }
+
+    private void delete(String name, Path path) {
+        forget(name);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // a leftover entry fails its key or length check and is deleted on the next lookup
+        }
+    }
+
+    private static String fileName(RequestKey key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.toKeyString().getBytes(StandardCharsets.UTF_8)), 0, 20);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Streams one response body into a temporary file that replaces the entry on {@link #commit()}.
+     */
+    public final class BodyWriter {
+
+        private final String name;
+        private final Path temp;
+        private final FileChannel channel;
+        private final long headerBytes;
+        private long size;
+        private boolean done;
+
+        private BodyWriter(String name, Path temp, FileChannel channel, long headerBytes) {
+            this.name = name;
+            this.temp = temp;
+            this.channel = channel;
+            this.headerBytes = headerBytes;
+        }
+
+        /**
+         * Appends the remaining bytes of {@code src} without consuming them.
+         */
+        public void write(ByteBuffer src) throws IOException {
+            writeFully(src.duplicate());
+        }
+
+        public void commit() throws IOException {
+            if (done) {
+                return;
+            }
+            done = true;
+
+            try (channel) {
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(size - headerBytes).flip(), BODY_LENGTH_OFFSET);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            DiskResponseCache.this.commit(name, temp, size);
+        }
+
+        public void abort() {
+            if (done) {
+                return;
+            }
+            done = true;
+
+            try (channel) {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                // an orphan is removed by the next scan
+            }
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            size += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
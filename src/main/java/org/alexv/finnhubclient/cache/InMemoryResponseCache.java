@@ -0,0 +1,118 @@
+package org.alexv.finnhubclient.cache;
+
+import org.alexv.finnhubclient.client.RequestKey;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache with a TTL per endpoint. Entries past their TTL are still served as stale
+ * for {@link CacheConfig#getStaleWhileRevalidate()} while the client refreshes them in the background.
+ * Values are shared as they are, see {@link ResponseCache}.
+ */
+public class InMemoryResponseCache implements ResponseCache {
+
+    private final CacheConfig config;
+    private final LinkedHashMap<RequestKey, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public InMemoryResponseCache() {
+        this(CacheConfig.defaults());
+    }
+
+    public InMemoryResponseCache(CacheConfig config) {
+        this.config = config;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RequestKey, Entry> eldest) {
+                if (size() > config.getMaxEntries()) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CacheLookup<T> get(RequestKey key) {
+        long now = System.nanoTime();
+        Entry entry;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && now - entry.staleUntil > 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return CacheLookup.miss();
+        }
+        if (now - entry.freshUntil <= 0) {
+            hits.increment();
+            return CacheLookup.fresh((T) entry.value);
+        }
+        staleHits.increment();
+        return CacheLookup.stale((T) entry.value);
+    }
+
+    @Override
+    public void put(RequestKey key, Object value) {
+        long ttl = config.ttl(key.getEndpoint()).toNanos();
+
+        if (ttl <= 0 || value == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        Entry entry = new Entry(value, now + ttl, now + ttl + config.getStaleWhileRevalidate().toNanos());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    @Override
+    public void invalidate(RequestKey key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), staleHits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long freshUntil;
+        private final long staleUntil;
+
+        private Entry(Object value, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.alexv.finnhubclient.cache;
+
+import org.alexv.finnhubclient.client.RequestKey;
+
+/**
+ * Decoded responses kept for reuse. A stored value is handed to every caller that looks it up, so it is shared:
+ * the client stores lists read-only, and model objects must not be changed by whoever receives them.
+ */
+public interface ResponseCache {
+
+    <T> CacheLookup<T> get(RequestKey key);
+
+    void put(RequestKey key, Object value);
+
+    void invalidate(RequestKey key);
+
+    void clear();
+
+    CacheStats getStats();
+
+    static ResponseCache disabled() {
+        return DisabledResponseCache.INSTANCE;
+    }
+}
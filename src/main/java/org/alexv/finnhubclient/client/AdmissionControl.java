@@ -0,0 +1,187 @@
+package org.alexv.finnhubclient.client;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the calls a client has on the wire or waiting for a rate-limit permit. Calls over the limit wait in
+ * arrival order, and once the queue is full too they fail fast with {@link CallRejectedException}. Keeps track of
+ * every admitted call so that {@link #drain(Duration)} can let them finish before the client shuts down.
+ */
+final class AdmissionControl {
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Set<CompletableFuture<?>> running = ConcurrentHashMap.newKeySet();
+    private final Queue<Waiter<?>> waiting = new ArrayDeque<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    private int inFlight;
+    private boolean closed;
+
+    /**
+     * @param maxInFlight calls admitted at once, 0 for no limit
+     * @param maxQueued   calls waiting for admission before new ones are rejected
+     */
+    AdmissionControl(int maxInFlight, int maxQueued) {
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        Waiter<T> waiter = new Waiter<>(call);
+
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Client is closed"));
+            }
+            if (maxInFlight <= 0 || inFlight < maxInFlight) {
+                inFlight++;
+            } else if (waiting.size() < maxQueued) {
+                waiting.add(waiter);
+                waiter.result.whenComplete((value, error) -> {
+                    if (waiter.result.isCancelled()) {
+                        dequeue(waiter);
+                    }
+                });
+                return waiter.result;
+            } else {
+                return CompletableFuture.failedFuture(new CallRejectedException(
+                        "Rejected: " + inFlight + " calls in flight and " + waiting.size() + " queued"));
+            }
+        }
+
+        start(waiter);
+        return waiter.result;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return waiting.size();
+    }
+
+    /**
+     * Stops admitting calls, fails the queued ones and waits up to {@code timeout} for the running ones to
+     * complete. Returns {@code false} if some were still running; those are cancelled, as they are when the
+     * wait is interrupted.
+     */
+    boolean drain(Duration timeout) throws InterruptedException {
+        List<Waiter<?>> rejected;
+
+        synchronized (this) {
+            closed = true;
+            rejected = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        for (Waiter<?> waiter : rejected) {
+            waiter.result.completeExceptionally(new IllegalStateException("Client is closed"));
+        }
+
+        CompletableFuture<?>[] pending = running.stream()
+                .map(call -> call.handle((value, error) -> null))
+                .toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.allOf(pending).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            running.forEach(call -> call.cancel(true));
+            return false;
+        } catch (InterruptedException e) {
+            running.forEach(call -> call.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            // every call was mapped to a value above
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> void start(Waiter<T> waiter) {
+        CompletableFuture<T> result = waiter.result;
+        running.add(result);
+        result.whenComplete((value, error) -> {
+            running.remove(result);
+            release();
+        });
+
+        CompletableFuture<T> started;
+        try {
+            started = waiter.call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        CompletableFuture<T> call = started;
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        admitQueued();
+    }
+
+    /**
+     * Calls that complete synchronously release from inside {@code start}; the work counter turns that
+     * recursion into another pass of the outermost loop.
+     */
+    private void admitQueued() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            while (true) {
+                Waiter<?> next;
+                synchronized (this) {
+                    if (waiting.isEmpty() || (maxInFlight > 0 && inFlight >= maxInFlight)) {
+                        break;
+                    }
+                    next = waiting.poll();
+                    inFlight++;
+                }
+                start(next);
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private synchronized void dequeue(Waiter<?> waiter) {
+        waiting.remove(waiter);
+    }
+
+    private static final class Waiter<T> {
+
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Waiter(Supplier<CompletableFuture<T>> call) {
+            this.call = call;
+        }
+    }
+}
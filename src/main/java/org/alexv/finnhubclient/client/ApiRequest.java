@@ -0,0 +1,57 @@
+package org.alexv.finnhubclient.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.alexv.finnhubclient.ratelimit.Priority;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Describes one call to the Finnhub API: what to request and what model type the response decodes to.
+ * Responses that are JSON arrays are described with {@link #listOf} and decoded element by element.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ApiRequest<T> {
+
+    private final RequestKey key;
+    private final Type type;
+    private final Class<?> elementType;
+    private final Priority priority;
+
+    /**
+     * {@code null} to use the client's {@link CallOptions}.
+     */
+    private final CallOptions options;
+
+    public static <T> ApiRequest<T> of(Endpoint endpoint, Class<T> type, String... params) {
+        return new ApiRequest<>(RequestKey.of(endpoint, params), type, null, endpoint.priority(), null);
+    }
+
+    public static <T> ApiRequest<T> of(Endpoint endpoint, TypeReference<T> type, String... params) {
+        return new ApiRequest<>(RequestKey.of(endpoint, params), type.getType(), null, endpoint.priority(), null);
+    }
+
+    public static <E> ApiRequest<List<E>> listOf(Endpoint endpoint, Class<E> elementType, String... params) {
+        return new ApiRequest<>(RequestKey.of(endpoint, params), List.class, elementType, endpoint.priority(), null);
+    }
+
+    public ApiRequest<T> withPriority(Priority priority) {
+        return new ApiRequest<>(key, type, elementType, priority, options);
+    }
+
+    public ApiRequest<T> withOptions(CallOptions options) {
+        return new ApiRequest<>(key, type, elementType, priority, options);
+    }
+
+    public Endpoint getEndpoint() {
+        return key.getEndpoint();
+    }
+
+    public boolean isStreamed() {
+        return elementType != null;
+    }
+}
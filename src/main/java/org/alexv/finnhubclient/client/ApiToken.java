@@ -0,0 +1,33 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Builder;
+import lombok.Value;
+import org.alexv.finnhubclient.ratelimit.RateLimiterConfig;
+
+/**
+ * One API key of a {@link TokenPool}, with the rate budget of its plan.
+ */
+@Value
+@Builder
+public class ApiToken {
+
+    String token;
+
+    /**
+     * Share of the traffic relative to the other tokens of the pool, e.g. 2 for a key with twice the quota.
+     */
+    @Builder.Default
+    int weight = 1;
+
+    @Builder.Default
+    RateLimiterConfig rateLimiter = RateLimiterConfig.defaults();
+
+    public static ApiToken of(String token) {
+        return ApiToken.builder().token(token).build();
+    }
+
+    @Override
+    public String toString() {
+        return "ApiToken(" + TokenPool.mask(token) + ", weight=" + weight + ")";
+    }
+}
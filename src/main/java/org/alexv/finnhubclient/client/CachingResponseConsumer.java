@@ -0,0 +1,221 @@
+package org.alexv.finnhubclient.client;
+
+import org.alexv.finnhubclient.cache.CachedResponse;
+import org.alexv.finnhubclient.cache.DiskResponseCache;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Outermost consumer of a cacheable exchange. A 200 is copied to the {@link DiskResponseCache} as its raw bytes
+ * stream past, before decompression; a 304 to a conditional request is answered by replaying the stored body
+ * through the delegate as if the server had sent it again. The replay runs on the cache's replay executor, as
+ * reading, decompressing and parsing a large body on the IO reactor would stall every other exchange.
+ */
+class CachingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final AsyncResponseConsumer<T> delegate;
+    private final DiskResponseCache cache;
+    private final RequestKey key;
+    private final CachedResponse revalidating;
+
+    private DiskResponseCache.BodyWriter writer;
+    private volatile boolean replaying;
+
+    CachingResponseConsumer(AsyncResponseConsumer<T> delegate, DiskResponseCache cache, RequestKey key,
+                            CachedResponse revalidating) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.key = key;
+        this.revalidating = revalidating;
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                FutureCallback<T> resultCallback) throws HttpException, IOException {
+        if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && revalidating != null) {
+            // the body was opened at lookup, so an entry evicted or replaced since then still replays
+            cache.revalidated(revalidating);
+            response.setCode(HttpStatus.SC_OK);
+            replaying = true;
+            try {
+                cache.getReplayExecutor().execute(() -> replayDetached(response, context, resultCallback));
+            } catch (RejectedExecutionException e) {
+                replaying = false;
+                throw new IOException("Disk cache is closed", e);
+            }
+            return;
+        }
+
+        if (response.getCode() == HttpStatus.SC_OK && entityDetails != null) {
+            try {
+                writer = cache.begin(key, value(response, HttpHeaders.ETAG), value(response, HttpHeaders.LAST_MODIFIED),
+                        entityDetails.getContentEncoding(), entityDetails.getContentType());
+            } catch (IOException e) {
+                writer = null;
+            }
+        }
+        delegate.consumeResponse(response, entityDetails, context, resultCallback);
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) throws HttpException, IOException {
+        delegate.informationResponse(response, context);
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        delegate.updateCapacity(capacityChannel);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+        if (writer != null) {
+            try {
+                writer.write(src);
+            } catch (IOException e) {
+                // a full or failing disk only costs the cache entry
+                writer.abort();
+                writer = null;
+            }
+        }
+        delegate.consume(src);
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) throws HttpException, IOException {
+        if (writer != null) {
+            try {
+                writer.commit();
+            } catch (IOException e) {
+                // not cached, nothing else lost
+            }
+            writer = null;
+        }
+        delegate.streamEnd(trailers);
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        abort();
+        if (!replaying) {
+            delegate.failed(cause);
+        }
+    }
+
+    @Override
+    public void releaseResources() {
+        // a body the delegate stopped reading early is incomplete
+        abort();
+        if (!replaying) {
+            delegate.releaseResources();
+        }
+    }
+
+    /**
+     * Replays the revalidated body once the exchange itself is over; from here on the delegate belongs to this
+     * thread, which also releases it.
+     */
+    private void replayDetached(HttpResponse response, HttpContext context, FutureCallback<T> resultCallback) {
+        try {
+            replay(revalidating, response, delegate, context, resultCallback);
+        } catch (HttpException | IOException | RuntimeException e) {
+            delegate.failed(e);
+            resultCallback.failed(e);
+        } finally {
+            delegate.releaseResources();
+        }
+    }
+
+    /**
+     * Feeds a stored body to {@code consumer} as the response to {@code response}, then closes {@code cached}.
+     */
+    static <T> void replay(CachedResponse cached, HttpResponse response, AsyncResponseConsumer<T> consumer,
+                           HttpContext context, FutureCallback<T> resultCallback) throws HttpException, IOException {
+        try (cached) {
+            FileChannel body = cached.getBody();
+            response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+            if (cached.getContentEncoding() != null) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, cached.getContentEncoding());
+            }
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(cached.getBodyLength()));
+            consumer.consumeResponse(response, new StoredEntity(cached), context, resultCallback);
+
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            long position = cached.getBodyOffset();
+            long end = position + cached.getBodyLength();
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(CHUNK_SIZE, end - position));
+                if (body.read(buffer, position) < 0) {
+                    throw new IOException("Cached body of " + cached.getKey() + " is truncated");
+                }
+                buffer.flip();
+                position += buffer.remaining();
+                consumer.consume(buffer);
+            }
+        }
+        consumer.streamEnd(null);
+    }
+
+    private void abort() {
+        if (writer != null) {
+            writer.abort();
+            writer = null;
+        }
+    }
+
+    private static String value(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static final class StoredEntity implements EntityDetails {
+
+        private final CachedResponse cached;
+
+        private StoredEntity(CachedResponse cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public long getContentLength() {
+            return cached.getBodyLength();
+        }
+
+        @Override
+        public String getContentType() {
+            return cached.getContentType();
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return cached.getContentEncoding();
+        }
+
+        @Override
+        public boolean isChunked() {
+            return false;
+        }
+
+        @Override
+        public Set<String> getTrailerNames() {
+            return Set.of();
+        }
+    }
+}
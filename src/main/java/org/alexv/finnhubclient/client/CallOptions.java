@@ -0,0 +1,38 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Per-call time limits, retries and hedging. The client default applies to every call that does not carry its own,
+ * see {@link ApiRequest#withOptions(CallOptions)}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class CallOptions {
+
+    /**
+     * Overall limit covering rate-limit queueing, every attempt and the backoff between them; {@code null} for none.
+     */
+    Duration deadline;
+
+    /**
+     * Limit on waiting for each response, capped by whatever is left of the deadline.
+     */
+    @Builder.Default
+    Duration attemptTimeout = Duration.ofSeconds(5);
+
+    @Builder.Default
+    RetryPolicy retry = RetryPolicy.defaults();
+
+    /**
+     * {@code null} disables hedging.
+     */
+    HedgePolicy hedge;
+
+    public static CallOptions defaults() {
+        return CallOptions.builder().build();
+    }
+}
@@ -0,0 +1,11 @@
+package org.alexv.finnhubclient.client;
+
+/**
+ * The client already had as many calls in flight and queued as it admits.
+ */
+public class CallRejectedException extends FinnhubException {
+
+    public CallRejectedException(String message) {
+        super(0, message);
+    }
+}
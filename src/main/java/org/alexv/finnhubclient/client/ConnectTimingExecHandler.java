@@ -0,0 +1,29 @@
+package org.alexv.finnhubclient.client;
+
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+
+import java.io.IOException;
+
+/**
+ * Sits right after the connect element of the exec chain, so it runs once a connection has been leased
+ * and established and marks that moment on the call's {@link RequestTrace}.
+ */
+class ConnectTimingExecHandler implements AsyncExecChainHandler {
+
+    static final String NAME = "finnhub-connect-timing";
+
+    @Override
+    public void execute(HttpRequest request, AsyncEntityProducer entityProducer, AsyncExecChain.Scope scope,
+                        AsyncExecChain chain, AsyncExecCallback asyncExecCallback) throws HttpException, IOException {
+        Object trace = scope.clientContext.getAttribute(RequestTrace.ATTRIBUTE);
+        if (trace instanceof RequestTrace requestTrace) {
+            requestTrace.connected();
+        }
+        chain.proceed(request, entityProducer, scope, asyncExecCallback);
+    }
+}
@@ -0,0 +1,16 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class DeadlineExceededException extends FinnhubException {
+
+    private final Duration deadline;
+
+    public DeadlineExceededException(String message, Duration deadline) {
+        super(0, message);
+        this.deadline = deadline;
+    }
+}
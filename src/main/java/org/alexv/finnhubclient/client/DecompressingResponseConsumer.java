@@ -0,0 +1,86 @@
+package org.alexv.finnhubclient.client;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.impl.BasicEntityDetails;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Inflates gzip-encoded bodies as they stream in, so the delegate sees the identity body. The async client does
+ * not decompress on its own.
+ */
+class DecompressingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+
+    static final String GZIP = "gzip";
+
+    private final AsyncResponseConsumer<T> delegate;
+
+    private GzipDecoder decoder;
+
+    DecompressingResponseConsumer(AsyncResponseConsumer<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                FutureCallback<T> resultCallback) throws HttpException, IOException {
+        if (entityDetails != null && GZIP.equalsIgnoreCase(entityDetails.getContentEncoding())) {
+            decoder = new GzipDecoder();
+            response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+            response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+            entityDetails = new BasicEntityDetails(-1, ContentType.parse(entityDetails.getContentType()));
+        }
+        delegate.consumeResponse(response, entityDetails, context, resultCallback);
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) throws HttpException, IOException {
+        delegate.informationResponse(response, context);
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        delegate.updateCapacity(capacityChannel);
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+        if (decoder == null) {
+            delegate.consume(src);
+        } else {
+            decoder.decode(src, delegate::consume);
+        }
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) throws HttpException, IOException {
+        if (decoder != null) {
+            decoder.finish();
+        }
+        delegate.streamEnd(trailers);
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        delegate.failed(cause);
+    }
+
+    @Override
+    public void releaseResources() {
+        delegate.releaseResources();
+        if (decoder != null) {
+            decoder.close();
+        }
+    }
+}
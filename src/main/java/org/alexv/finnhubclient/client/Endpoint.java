@@ -1,21 +1,30 @@
 package org.alexv.finnhubclient.client;
 
+import org.alexv.finnhubclient.ratelimit.Priority;
+
 public enum Endpoint {
 	
-    QUOTE("https://finnhub.io/api/v1/quote"),
-    COMPANY_PROFILE("https://finnhub.io/api/v1/stock/profile2"),
-    SYMBOL("https://finnhub.io/api/v1/stock/symbol"),
-    SYMBOL_LOOKUP("https://finnhub.io/api/v1/search"),
-    CANDLE("https://finnhub.io/api/v1/stock/candle");
+    QUOTE("https://finnhub.io/api/v1/quote", Priority.HIGH),
+    COMPANY_PROFILE("https://finnhub.io/api/v1/stock/profile2", Priority.NORMAL),
+    SYMBOL("https://finnhub.io/api/v1/stock/symbol", Priority.NORMAL),
+    SYMBOL_LOOKUP("https://finnhub.io/api/v1/search", Priority.NORMAL),
+    CANDLE("https://finnhub.io/api/v1/stock/candle", Priority.LOW),
+    TRADES("wss://ws.finnhub.io", Priority.HIGH);
 
     private final String url;
+    private final Priority priority;
 
-    Endpoint(String url) {
+    Endpoint(String url, Priority priority) {
         this.url = url;
+        this.priority = priority;
     }
 
     public String url() {
         return url;
     }
 
+    public Priority priority() {
+        return priority;
+    }
+
 }
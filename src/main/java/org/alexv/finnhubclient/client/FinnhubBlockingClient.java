@@ -0,0 +1,192 @@
+package org.alexv.finnhubclient.client;
+
+import org.alexv.finnhubclient.batch.BatchResult;
+import org.alexv.finnhubclient.model.Candle;
+import org.alexv.finnhubclient.model.CandleSeries;
+import org.alexv.finnhubclient.model.CompanyProfile;
+import org.alexv.finnhubclient.model.EnrichedSymbol;
+import org.alexv.finnhubclient.model.Exchange;
+import org.alexv.finnhubclient.model.Quote;
+import org.alexv.finnhubclient.model.SymbolLookup;
+import org.alexv.finnhubclient.ratelimit.Priority;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Synchronous view of a {@link FinnhubClient}, meant to be called from virtual threads: a blocked call parks its
+ * virtual thread instead of holding a platform thread. Calls go through the wrapped client, so they share its
+ * rate limiter, connection pool, cache and coalescing with async callers.
+ * <p>
+ * Failures are rethrown as they are, mostly as {@link FinnhubException}; interruption cancels the call and
+ * surfaces as {@link CancellationException} with the interrupt flag set.
+ */
+public class FinnhubBlockingClient {
+
+    private final FinnhubClient client;
+
+    public FinnhubBlockingClient(FinnhubClient client) {
+        this.client = client;
+    }
+
+    public FinnhubClient async() {
+        return client;
+    }
+
+    public Quote getQuote(String symbol) {
+        return await(client.getQuote(symbol));
+    }
+
+    public Quote getQuote(String symbol, Priority priority) {
+        return await(client.getQuote(symbol, priority));
+    }
+
+    public Quote getQuote(String symbol, CallOptions options) {
+        return await(client.getQuote(symbol, options));
+    }
+
+    public BatchResult<Quote> getQuotes(Collection<String> symbols) {
+        return await(client.getQuotes(symbols));
+    }
+
+    public Candle getCandle(String symbol, String resolution, long startEpoch, long endEpoch) {
+        return await(client.getCandle(symbol, resolution, startEpoch, endEpoch));
+    }
+
+    public Candle getCandle(String symbol, String resolution, long startEpoch, long endEpoch, Priority priority) {
+        return await(client.getCandle(symbol, resolution, startEpoch, endEpoch, priority));
+    }
+
+    public CandleSeries getCandleSeries(String symbol, String resolution, long startEpoch, long endEpoch) {
+        return await(client.getCandleSeries(symbol, resolution, startEpoch, endEpoch));
+    }
+
+    public CandleSeries getCandleSeries(String symbol, String resolution, long startEpoch, long endEpoch, Priority priority) {
+        return await(client.getCandleSeries(symbol, resolution, startEpoch, endEpoch, priority));
+    }
+
+    public CompanyProfile getCompanyProfile(String symbol) {
+        return await(client.getCompanyProfile(symbol));
+    }
+
+    public List<EnrichedSymbol> getSymbols(String exchange) {
+        return await(client.getSymbols(exchange));
+    }
+
+    public long streamSymbols(Exchange exchange, Consumer<? super EnrichedSymbol> consumer) {
+        return await(client.streamSymbols(exchange, consumer));
+    }
+
+    public List<EnrichedSymbol> findSymbols(Exchange exchange, Predicate<? super EnrichedSymbol> filter, int limit) {
+        return await(client.findSymbols(exchange, filter, limit));
+    }
+
+    public SymbolLookup searchSymbol(String query) {
+        return await(client.searchSymbol(query));
+    }
+
+    public SymbolLookup searchSymbol(String query, Collection<Exchange> exchanges) {
+        return await(client.searchSymbol(query, exchanges));
+    }
+
+    public List<EnrichedSymbol> searchAllStock(String exchange, String symbol) {
+        return await(client.searchAllStock(exchange, symbol));
+    }
+
+    public List<EnrichedSymbol> searchStock(String exchange, String mic) {
+        return await(client.searchStock(exchange, mic));
+    }
+
+    public <T> T execute(ApiRequest<T> request) {
+        return await(client.execute(request));
+    }
+
+    public Map<String, CompanyProfile> getCompanyProfiles(Collection<String> symbols) {
+        return fanOut(symbols, this::getCompanyProfile);
+    }
+
+    /**
+     * Runs {@code call} for every distinct key on its own virtual thread and waits for all of them. The fan-out is
+     * scoped to this method: the first failure interrupts the calls still running and is rethrown, and no thread
+     * outlives the method. The result keeps the iteration order of {@code keys}.
+     */
+    public <K, V> Map<K, V> fanOut(Collection<K> keys, Function<? super K, ? extends V> call) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<CompletableFuture<V>> results = new ArrayList<>(distinct.size());
+        List<Future<?>> tasks = new ArrayList<>(distinct.size());
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (K key : distinct) {
+                CompletableFuture<V> result = new CompletableFuture<>();
+                results.add(result);
+                tasks.add(scope.submit(() -> {
+                    try {
+                        result.complete(call.apply(key));
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                        firstFailure.completeExceptionally(e);
+                    }
+                }));
+            }
+
+            try {
+                CompletableFuture.anyOf(CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])), firstFailure)
+                        .get();
+            } catch (InterruptedException | ExecutionException e) {
+                tasks.forEach(task -> task.cancel(true));
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while waiting for " + distinct.size() + " calls");
+                }
+                throw rethrow(e.getCause());
+            }
+        }
+
+        Map<K, V> values = new LinkedHashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            values.put(distinct.get(i), results.get(i).join());
+        }
+        return values;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a Finnhub call");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        if (cause instanceof IOException ioException) {
+            return new UncheckedIOException(ioException);
+        }
+        return new FinnhubException(0, cause.getMessage(), cause);
+    }
+}
@@ -1,321 +1,842 @@
 package org.alexv.finnhubclient.client;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.alexv.finnhubclient.batch.BatchPublisher;
+import org.alexv.finnhubclient.batch.BatchResult;
+import org.alexv.finnhubclient.batch.SymbolResult;
+import org.alexv.finnhubclient.cache.CacheLookup;
+import org.alexv.finnhubclient.cache.CachedResponse;
+import org.alexv.finnhubclient.cache.DiskResponseCache;
+import org.alexv.finnhubclient.cache.ResponseCache;
+import org.alexv.finnhubclient.metrics.MetricsListener;
 import org.alexv.finnhubclient.model.*;
+import org.alexv.finnhubclient.poll.QuotePoller;
+import org.alexv.finnhubclient.poll.QuoteSubscription;
+import org.alexv.finnhubclient.ratelimit.Permit;
+import org.alexv.finnhubclient.ratelimit.Priority;
+import org.alexv.finnhubclient.ratelimit.RateLimiter;
+import org.alexv.finnhubclient.ratelimit.RateLimiterConfig;
+import org.alexv.finnhubclient.store.CandleStore;
+import org.alexv.finnhubclient.stream.TradeStream;
+import org.alexv.finnhubclient.stream.TradeStreamConfig;
+import org.alexv.finnhubclient.symbol.SymbolDirectory;
 import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
 import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Data
 @NoArgsConstructor
-public class FinnhubClient {
+public class FinnhubClient implements AutoCloseable {
 
     private CloseableHttpAsyncClient httpClient;
     private String token;
     private ObjectMapper objectMapper = new ObjectMapper();
+    private RateLimiter rateLimiter = new RateLimiter(RateLimiterConfig.defaults());
+
+    /**
+     * When set, calls are spread over its tokens and their rate limiters instead of {@code token} and
+     * {@code rateLimiter}.
+     */
+    private TokenPool tokenPool;
+
+    private RequestCoalescer coalescer = new RequestCoalescer();
+    private ResponseCache responseCache = ResponseCache.disabled();
+
+    /**
+     * When set, raw responses of the endpoints it caches are kept on disk across restarts and revalidated with
+     * the server instead of downloaded again.
+     */
+    private DiskResponseCache diskCache;
+    private CandleStore candleStore;
+    private SymbolDirectory symbolDirectory = new SymbolDirectory(this);
+    private int batchConcurrency = 16;
+    private MetricsListener metricsListener = MetricsListener.NONE;
+    private CallOptions callOptions = CallOptions.defaults();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LatencyTracker latencies = new LatencyTracker();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private AdmissionControl admission = admission(FinnhubClientConfig.defaults());
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Duration shutdownTimeout = FinnhubClientConfig.defaults().getShutdownTimeout();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private QuotePoller quotePoller;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ObjectReaderCache readers = new ObjectReaderCache(objectMapper);
 
     public FinnhubClient(String token) {
+        this(token, FinnhubClientConfig.defaults());
+    }
+
+    public FinnhubClient(String token, RateLimiterConfig rateLimiterConfig) {
+        this(token, FinnhubClientConfig.builder().rateLimiter(rateLimiterConfig).build());
+    }
+
+    public FinnhubClient(String token, FinnhubClientConfig config) {
         this.token = token;
+        this.rateLimiter = new RateLimiter(config.getRateLimiter());
+        this.callOptions = config.getCallOptions();
+        this.admission = admission(config);
+        this.shutdownTimeout = config.getShutdownTimeout();
+        this.diskCache = config.getDiskCache() == null ? null : new DiskResponseCache(config.getDiskCache());
 
-        configClient();
+        configClient(config);
         startClient();
+        if (config.getWarmUpConnections() > 0) {
+            warmUp(config.getWarmUpConnections());
+        }
+    }
+
+    public FinnhubClient(TokenPool tokenPool) {
+        this(tokenPool, FinnhubClientConfig.defaults());
+    }
+
+    /**
+     * A client that shards calls over the tokens of the pool; {@code config.rateLimiter} is not used, as every
+     * token brings its own rate budget.
+     */
+    public FinnhubClient(TokenPool tokenPool, FinnhubClientConfig config) {
+        this.token = tokenPool.primaryToken();
+        this.tokenPool = tokenPool;
+        this.callOptions = config.getCallOptions();
+        this.admission = admission(config);
+        this.shutdownTimeout = config.getShutdownTimeout();
+        this.diskCache = config.getDiskCache() == null ? null : new DiskResponseCache(config.getDiskCache());
+
+        configClient(config);
+        startClient();
+        if (config.getWarmUpConnections() > 0) {
+            warmUp(config.getWarmUpConnections());
+        }
     }
 
     public FinnhubClient(CloseableHttpAsyncClient httpClient, String token, ObjectMapper objectMapper) {
         this.httpClient = httpClient;
         this.token = token;
-        this.objectMapper = objectMapper;
+        setObjectMapper(objectMapper);
 
         startClient();
     }
 
-    private void startClient() {
-        this.httpClient.start();
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.readers = new ObjectReaderCache(objectMapper);
     }
 
-    private void configClient() {
-        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
-                .setSoTimeout(Timeout.ofSeconds(5))
-                .build();
+    /**
+     * Opens up to {@code connections} connections to the API host ahead of the first calls, with concurrent HEAD
+     * requests to the host root. They are not API calls, so they do not touch the rate limit.
+     */
+    public CompletableFuture<Void> warmUp(int connections) {
+        URI root = URI.create(Endpoint.QUOTE.url()).resolve("/");
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[connections];
+
+        for (int i = 0; i < connections; i++) {
+            CompletableFuture<SimpleHttpResponse> request = new CompletableFuture<>();
+            httpClient.execute(SimpleRequestProducer.create(SimpleHttpRequest.create(Method.HEAD, root)),
+                    SimpleResponseConsumer.create(), new FutureCallback<SimpleHttpResponse>() {
+                        @Override
+                        public void completed(SimpleHttpResponse response) {
+                            request.complete(response);
+                        }
 
-        this.httpClient = HttpAsyncClients.custom()
-                .setIOReactorConfig(ioReactorConfig)
-                .build();
+                        @Override
+                        public void failed(Exception e) {
+                            request.completeExceptionally(e);
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            request.cancel(false);
+                        }
+                    });
+            requests[i] = request;
+        }
+        return CompletableFuture.allOf(requests);
     }
 
+    /**
+     * Closes the client with the configured {@code shutdownTimeout}.
+     */
+    @Override
+    public void close() {
+        close(shutdownTimeout);
+    }
 
-    public CompletableFuture<Quote> getQuote(String symbol) {
+    /**
+     * Stops taking calls, fails the ones still waiting for admission and gives those in flight up to
+     * {@code timeout} to complete before cancelling them. Then releases the connections, the IO reactor and the
+     * client's background threads. Returns {@code false} if calls had to be cancelled.
+     */
+    public boolean close(Duration timeout) {
+        boolean drained;
+        boolean interrupted = false;
+        try {
+            drained = admission.drain(timeout);
+        } catch (InterruptedException e) {
+            drained = false;
+            interrupted = true;
+        }
+
+        synchronized (this) {
+            if (quotePoller != null) {
+                quotePoller.close();
+            }
+        }
+        if (symbolDirectory != null) {
+            symbolDirectory.close();
+        }
+        httpClient.close(CloseMode.GRACEFUL);
+        rateLimiter.close();
+        if (tokenPool != null) {
+            tokenPool.close();
+        }
+        if (diskCache != null) {
+            diskCache.close();
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return drained;
+    }
 
-        CompletableFuture<Quote> futureQuote = new CompletableFuture<>();
-        URI uri = URI.create(Endpoint.QUOTE.url() + "?token=" + token + "&symbol=" + symbol);
+    /**
+     * Calls currently admitted, counting those waiting for a rate-limit permit.
+     */
+    public int getInFlightCalls() {
+        return admission.inFlight();
+    }
 
-        SimpleHttpRequest request = SimpleHttpRequest.create(Method.GET, uri);
+    public int getQueuedCalls() {
+        return admission.queued();
+    }
 
-        httpClient.execute(
-                request,
-                new FutureCallback<>() {
-                    @Override
-                    public void completed(SimpleHttpResponse response) {
-                        try {
-                            Quote quote = objectMapper.readValue(response.getBodyText(), Quote.class);
-                            futureQuote.complete(quote);
-                        } catch (JsonProcessingException exception) {
-                            futureQuote.completeExceptionally(exception);
-                        }
-                    }
+    private static AdmissionControl admission(FinnhubClientConfig config) {
+        return new AdmissionControl(config.getMaxInFlight(), config.getMaxQueuedCalls());
+    }
 
-                    @Override
-                    public void failed(Exception e) {
-                        futureQuote.completeExceptionally(e);
-                    }
+    private void startClient() {
+        this.httpClient.start();
+    }
 
-                    @Override
-                    public void cancelled() {
-                        futureQuote.cancel(true);
-                    }
+    private void configClient(FinnhubClientConfig config) {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(config.getIoThreads())
+                .setSoTimeout(Timeout.ofMilliseconds(config.getSocketTimeout().toMillis()))
+                .setTcpNoDelay(config.isTcpNoDelay())
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout().toMillis()))
+                .setDefaultKeepAlive(config.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        List<Header> defaultHeaders = config.isGzip()
+                ? List.of(new BasicHeader(HttpHeaders.ACCEPT_ENCODING, DecompressingResponseConsumer.GZIP))
+                : List.of();
+
+        if (config.isHttp2()) {
+            this.httpClient = instrument(HttpAsyncClients.customHttp2())
+                    .setIOReactorConfig(ioReactorConfig)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setDefaultHeaders(defaultHeaders)
+                    .disableAutomaticRetries()
+                    .build();
+            return;
+        }
+
+        this.httpClient = instrument(HttpAsyncClients.custom())
+                .setIOReactorConfig(ioReactorConfig)
+                .setDefaultRequestConfig(requestConfig)
+                .setDefaultHeaders(defaultHeaders)
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                        .setMaxConnTotal(config.getMaxConnectionsTotal())
+                        .setConnectionTimeToLive(config.getConnectionTtl() == null
+                                ? TimeValue.NEG_ONE_MILLISECOND : TimeValue.ofMilliseconds(config.getConnectionTtl().toMillis()))
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+    }
 
-                }
-        );
+    /**
+     * Lets a {@link MetricsListener} tell connection setup apart from server time. Clients built by
+     * {@code FinnhubClient} already have it; apply it to builders of HTTP clients passed in from outside.
+     */
+    public static HttpAsyncClientBuilder instrument(HttpAsyncClientBuilder builder) {
+        return builder.addExecInterceptorAfter(ChainElement.CONNECT.name(), ConnectTimingExecHandler.NAME,
+                new ConnectTimingExecHandler());
+    }
 
-        return futureQuote;
+    public static H2AsyncClientBuilder instrument(H2AsyncClientBuilder builder) {
+        return builder.addExecInterceptorAfter(ChainElement.CONNECT.name(), ConnectTimingExecHandler.NAME,
+                new ConnectTimingExecHandler());
     }
 
 
-    public CompletableFuture<Candle> getCandle(String symbol, String resolution, long startEpoch, long endEpoch) {
+    /**
+     * A synchronous view of this client for virtual threads, sharing its rate limiter and connections.
+     */
+    public FinnhubBlockingClient blocking() {
+        return new FinnhubBlockingClient(this);
+    }
 
-        CompletableFuture<Candle> futureCandle = new CompletableFuture<>();
+    public CompletableFuture<Quote> getQuote(String symbol) {
+        return getQuote(symbol, Endpoint.QUOTE.priority());
+    }
 
-        URI uri = URI.create(Endpoint.CANDLE.url() + "?token=" + token
-                + "&symbol=" + symbol.toUpperCase() + "&resolution=" + resolution + "&from=" + startEpoch + "&to=" + endEpoch);
+    public CompletableFuture<Quote> getQuote(String symbol, Priority priority) {
+        return execute(ApiRequest.of(Endpoint.QUOTE, Quote.class, "symbol", symbol).withPriority(priority));
+    }
 
-        SimpleHttpRequest request = SimpleHttpRequest.create(Method.GET, uri);
+    public CompletableFuture<Quote> getQuote(String symbol, CallOptions options) {
+        return execute(ApiRequest.of(Endpoint.QUOTE, Quote.class, "symbol", symbol).withOptions(options));
+    }
 
-        httpClient.execute(
-                request,
-                new FutureCallback<SimpleHttpResponse>() {
-                    @Override
-                    public void completed(SimpleHttpResponse response) {
-                        try {
-                            Candle candle = objectMapper.readValue(response.getBodyText(), Candle.class);
-                            futureCandle.complete(candle);
-                        } catch (JsonProcessingException e) {
-                            futureCandle.completeExceptionally(e);
-                        }
-                    }
+    public CompletableFuture<BatchResult<Quote>> getQuotes(Collection<String> symbols) {
+        return getQuotes(symbols, batchConcurrency);
+    }
 
-                    @Override
-                    public void failed(Exception e) {
-                        futureCandle.completeExceptionally(e);
-                    }
+    public CompletableFuture<BatchResult<Quote>> getQuotes(Collection<String> symbols, int maxInFlight) {
+        return BatchResult.collect(publishQuotes(symbols, maxInFlight));
+    }
 
-                    @Override
-                    public void cancelled() {
-                        futureCandle.cancel(true);
-                    }
-                }
-        );
+    public Flow.Publisher<SymbolResult<Quote>> publishQuotes(Collection<String> symbols) {
+        return publishQuotes(symbols, batchConcurrency);
+    }
 
-        return futureCandle;
+    public Flow.Publisher<SymbolResult<Quote>> publishQuotes(Collection<String> symbols, int maxInFlight) {
+        return new BatchPublisher<>(symbols, this::getQuote, maxInFlight);
     }
 
-    public CompletableFuture<CompanyProfile> getCompanyProfile(String symbol) {
+    /**
+     * Polls the symbols within this client's share of the rate limit, sharing one schedule with every other
+     * subscription. {@code target} is the desired interval between polls of a symbol; volatile symbols are
+     * polled more often than that and quiet ones less often.
+     */
+    public synchronized QuoteSubscription subscribeQuotes(Set<String> symbols, Duration target) {
+        if (quotePoller == null) {
+            quotePoller = new QuotePoller(this, pollingBudget());
+        }
+        return quotePoller.subscribe(symbols, target);
+    }
 
-        CompletableFuture<CompanyProfile> futureCompanyProfile = new CompletableFuture<>();
+    private double pollingBudget() {
+        if (tokenPool == null) {
+            return QuotePoller.budget(rateLimiter.getConfig());
+        }
 
-        URI uri = URI.create(Endpoint.COMPANY_PROFILE.url() + "?token=" + token + "&symbol=" + symbol);
+        double budget = 0;
+        for (ApiToken apiToken : tokenPool.getConfig().getTokens()) {
+            budget += QuotePoller.budget(apiToken.getRateLimiter());
+        }
+        return budget;
+    }
 
-        SimpleHttpRequest request = SimpleHttpRequest.create(Method.GET, uri);
+    public CompletableFuture<Candle> getCandle(String symbol, String resolution, long startEpoch, long endEpoch) {
+        return getCandle(symbol, resolution, startEpoch, endEpoch, Endpoint.CANDLE.priority());
+    }
 
-        httpClient.execute(
-                request,
-                new FutureCallback<SimpleHttpResponse>() {
-                    @Override
-                    public void completed(SimpleHttpResponse response) {
-                        try {
-                            CompanyProfile companyProfile = objectMapper.readValue(response.getBodyText(), CompanyProfile.class);
-                            futureCompanyProfile.complete(companyProfile);
-                        } catch (JsonProcessingException e) {
-                            futureCompanyProfile.completeExceptionally(e);
-                        }
-                    }
+    public CompletableFuture<Candle> getCandle(String symbol, String resolution, long startEpoch, long endEpoch, Priority priority) {
+        return thenApplyCancellable(getCandleSeries(symbol, resolution, startEpoch, endEpoch, priority), CandleSeries::toCandle);
+    }
 
-                    @Override
-                    public void failed(Exception e) {
-                        futureCompanyProfile.completeExceptionally(e);
-                    }
+    public CompletableFuture<CandleSeries> getCandleSeries(String symbol, String resolution, long startEpoch, long endEpoch) {
+        return getCandleSeries(symbol, resolution, startEpoch, endEpoch, Endpoint.CANDLE.priority());
+    }
 
-                    @Override
-                    public void cancelled() {
-                        futureCompanyProfile.cancel(true);
-                    }
-                }
-        );
+    public CompletableFuture<CandleSeries> getCandleSeries(String symbol, String resolution, long startEpoch, long endEpoch, Priority priority) {
+        String upperSymbol = symbol.toUpperCase();
 
-        return futureCompanyProfile;
+        if (candleStore == null) {
+            return fetchCandleSeries(upperSymbol, resolution, startEpoch, endEpoch, priority);
+        }
+        return candleStore.load(upperSymbol, resolution, startEpoch, endEpoch,
+                (from, to) -> fetchCandleSeries(upperSymbol, resolution, from, to, priority));
+    }
+
+    public CompletableFuture<CompanyProfile> getCompanyProfile(String symbol) {
+        return execute(ApiRequest.of(Endpoint.COMPANY_PROFILE, CompanyProfile.class, "symbol", symbol));
     }
 
     public CompletableFuture<List<EnrichedSymbol>> getSymbols(String exchange) {
+        return execute(symbols(Exchange.valueOf(exchange).code()));
+    }
 
-        CompletableFuture<List<EnrichedSymbol>> futureEnrichedSymbolList = new CompletableFuture<>();
+    public CompletableFuture<Long> streamSymbols(Exchange exchange, Consumer<? super EnrichedSymbol> consumer) {
+        return stream(symbols(exchange.code()), enrichedSymbol -> {
+            consumer.accept(enrichedSymbol);
+            return true;
+        });
+    }
 
-        URI uri = URI.create(Endpoint.SYMBOL.url() + "?token=" + token + "&exchange=" + Exchange.valueOf(exchange).code());
+    public CompletableFuture<List<EnrichedSymbol>> findSymbols(Exchange exchange, Predicate<? super EnrichedSymbol> filter, int limit) {
+        return find(symbols(exchange.code()), filter, limit);
+    }
 
-        SimpleHttpRequest request = SimpleHttpRequest.create(Method.GET, uri);
+    public CompletableFuture<SymbolLookup> searchSymbol(String query) {
+        return execute(ApiRequest.of(Endpoint.SYMBOL_LOOKUP, SymbolLookup.class, "q", query));
+    }
 
-        httpClient.execute(
-                request,
-                new FutureCallback<SimpleHttpResponse>() {
-                    @Override
-                    public void completed(SimpleHttpResponse response) {
-                        try {
-                            List<EnrichedSymbol> enrichedSymbolList = objectMapper.readValue(response.getBodyText(), new TypeReference<List<EnrichedSymbol>>() {
-                            });
-                            futureEnrichedSymbolList.complete(enrichedSymbolList);
-                        } catch (JsonProcessingException e) {
-                            futureEnrichedSymbolList.completeExceptionally(e);
-                        }
-                    }
+    /**
+     * Searches the symbol lists of the exchanges locally instead of calling the API, so it is cheap enough to run on
+     * every keystroke. The lists are loaded on first use. Without a {@link SymbolDirectory} this falls back to the
+     * remote search.
+     */
+    public CompletableFuture<SymbolLookup> searchSymbol(String query, Collection<Exchange> exchanges) {
+        if (symbolDirectory == null) {
+            return searchSymbol(query);
+        }
+        return symbolDirectory.search(query, exchanges);
+    }
 
-                    @Override
-                    public void failed(Exception e) {
-                        futureEnrichedSymbolList.completeExceptionally(e);
-                    }
+    /**
+     * Looks the symbol up in the symbol directory, or scans the exchange's list when there is no directory or
+     * the code is not a known {@link Exchange}.
+     */
+    public CompletableFuture<List<EnrichedSymbol>> searchAllStock(String exchange, String symbol) {
+        Exchange known = null;
+        try {
+            known = Exchange.fromCode(exchange);
+        } catch (IllegalArgumentException e) {
+            // the API accepts codes the enum does not list yet
+        }
+
+        if (symbolDirectory == null || known == null) {
+            return find(symbols(exchange), enrichedSymbol -> symbol.equals(enrichedSymbol.getSymbol()), 1);
+        }
+        return symbolDirectory.findBySymbol(known, symbol)
+                .thenApply(match -> match.map(List::of).orElseGet(List::of));
+    }
 
-                    @Override
-                    public void cancelled() {
-                        futureEnrichedSymbolList.cancel(true);
-                    }
-                }
-        );
+    public CompletableFuture<List<EnrichedSymbol>> searchStock(String exchange, String mic) {
+        return execute(ApiRequest.listOf(Endpoint.SYMBOL, EnrichedSymbol.class, "exchange", exchange, "mic", mic));
+    }
 
-        return futureEnrichedSymbolList;
+    public TradeStream streamTrades() {
+        return new TradeStream(token);
     }
 
-    public CompletableFuture<SymbolLookup> searchSymbol(String query) {
+    public TradeStream streamTrades(TradeStreamConfig config) {
+        return new TradeStream(token, config);
+    }
 
-        CompletableFuture<SymbolLookup> futureSymbols = new CompletableFuture<>();
+    public <T> CompletableFuture<T> execute(ApiRequest<T> request) {
+        return load(request, () -> fetch(request));
+    }
 
-        URI uri = URI.create(Endpoint.SYMBOL_LOOKUP.url() + "?token=" + token + "&q=" + query);
+    public <E> CompletableFuture<Long> stream(ApiRequest<List<E>> request, Predicate<? super E> sink) {
+        CompletableFuture<Long> futureCount = new CompletableFuture<>();
+        ObjectReader reader = readers.forType(request.getElementType());
+        RequestTrace trace = RequestTrace.start(request.getEndpoint(), metricsListener);
+
+        CompletableFuture<Long> call = call(request, trace, false, () -> new JsonArrayStreamConsumer<E>(reader, sink));
+        call.whenComplete((count, error) -> {
+            if (error == null) {
+                trace.finish(null);
+                futureCount.complete(count);
+            } else if (!(unwrap(error) instanceof StreamStoppedException stopped)) {
+                trace.finish(unwrap(error));
+                completeFailed(futureCount, unwrap(error));
+            } else if (stopped.isFailure()) {
+                ResponseDecodingException decodingException = new ResponseDecodingException(HttpStatus.SC_OK,
+                        "Failed to decode " + request.getEndpoint() + " response", stopped.getCause());
+                trace.finish(decodingException);
+                futureCount.completeExceptionally(decodingException);
+            } else {
+                trace.finish(null);
+                futureCount.complete(stopped.getCount());
+            }
+        });
+        cancelWith(futureCount, call);
+
+        return futureCount;
+    }
 
-        SimpleHttpRequest request = SimpleHttpRequest.create(Method.GET, uri);
+    private CompletableFuture<CandleSeries> fetchCandleSeries(String symbol, String resolution, long startEpoch, long endEpoch,
+                                                              Priority priority) {
+        return execute(ApiRequest.of(Endpoint.CANDLE, CandleSeries.class, "symbol", symbol, "resolution", resolution,
+                "from", String.valueOf(startEpoch), "to", String.valueOf(endEpoch)).withPriority(priority));
+    }
 
-        httpClient.execute(
-                request,
-                new FutureCallback<SimpleHttpResponse>() {
-                    @Override
-                    public void completed(SimpleHttpResponse response) {
-                        try {
-                            SymbolLookup symbols = objectMapper.readValue(response.getBodyText(), SymbolLookup.class);
-                            futureSymbols.complete(symbols);
-                        } catch (JsonProcessingException e) {
-                            futureSymbols.completeExceptionally(e);
-                        }
-                    }
+    private static ApiRequest<List<EnrichedSymbol>> symbols(String exchangeCode) {
+        return ApiRequest.listOf(Endpoint.SYMBOL, EnrichedSymbol.class, "exchange", exchangeCode);
+    }
 
-                    @Override
-                    public void failed(Exception e) {
-                        futureSymbols.completeExceptionally(e);
-                    }
+    private <E> CompletableFuture<List<E>> find(ApiRequest<List<E>> request, Predicate<? super E> filter, int limit) {
+        List<E> matches = new ArrayList<>();
 
-                    @Override
-                    public void cancelled() {
-                        futureSymbols.cancel(true);
-                    }
-                }
-        );
+        return thenApplyCancellable(stream(request, element -> {
+            if (filter.test(element)) {
+                matches.add(element);
+            }
+            return matches.size() < limit;
+        }), count -> matches);
+    }
 
-        return futureSymbols;
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> fetch(ApiRequest<T> request) {
+        if (request.isStreamed()) {
+            List<Object> elements = new ArrayList<>();
+            return thenApplyCancellable(stream((ApiRequest<List<Object>>) request, elements::add), count -> (T) elements);
+        }
+
+        CompletableFuture<T> futureResult = new CompletableFuture<>();
+        ObjectReader reader = readers.forType(request.getType());
+        RequestTrace trace = RequestTrace.start(request.getEndpoint(), metricsListener);
+
+        CompletableFuture<SimpleHttpResponse> call = call(request, trace, true, SimpleResponseConsumer::create);
+        call.whenComplete((response, error) -> {
+            if (error != null) {
+                trace.finish(unwrap(error));
+                completeFailed(futureResult, unwrap(error));
+                return;
+            }
+            try {
+                T result = reader.readValue(response.getBodyBytes());
+                trace.finish(null);
+                futureResult.complete(result);
+            } catch (IOException e) {
+                ResponseDecodingException decodingException = new ResponseDecodingException(response.getCode(),
+                        "Failed to decode " + request.getEndpoint() + " response", e);
+                trace.finish(decodingException);
+                futureResult.completeExceptionally(decodingException);
+            }
+        });
+        cancelWith(futureResult, call);
+
+        return futureResult;
     }
 
-    public CompletableFuture<List<EnrichedSymbol>> searchAllStock(String exchange, String symbol) {
+    private <T> CompletableFuture<T> call(ApiRequest<?> request, RequestTrace trace, boolean replayable,
+                                          Supplier<AsyncResponseConsumer<T>> responseConsumer) {
+        CallOptions options = request.getOptions() != null ? request.getOptions() : callOptions;
 
-        CompletableFuture<List<EnrichedSymbol>> futureEnrichedSymbolList = new CompletableFuture<>();
+        return admission.submit(() -> new ResilientCall<T>(request.getEndpoint(), options, replayable, latencies,
+                (responseTimeout, hedge, permitted) -> exchange(request, trace, responseConsumer, responseTimeout, hedge,
+                        permitted)).execute());
+    }
 
-        URI uri = URI.create(Endpoint.SYMBOL.url() + "?token=" + token + "&exchange=" + exchange);
+    /**
+     * One HTTP exchange, re-queued on the rate limiter after a 429 like any other attempt. Hedges only go out on a
+     * spare permit and are not re-queued; {@code null} is returned when there is no spare permit. {@code permitted}
+     * runs whenever the exchange is granted a permit, and not at all when it is answered from the disk cache.
+     */
+    private <T> CompletableFuture<T> exchange(ApiRequest<?> request, RequestTrace trace,
+                                              Supplier<AsyncResponseConsumer<T>> responseConsumer,
+                                              Timeout responseTimeout, boolean hedge, Runnable permitted) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        if (!hedge) {
+            send(request, trace, responseConsumer, responseTimeout, result, 0, permitted);
+            return result;
+        }
+
+        TokenLease lease = lease();
+        if (lease == null || lease.rateLimiter().tryAcquire(request.getPriority()).isEmpty()) {
+            if (lease != null) {
+                lease.release(null);
+            }
+            return null;
+        }
+        trace.hedged();
+        permitted.run();
+        execute(request, trace, lease, null, responseConsumer, responseTimeout, result, 0, true, permitted);
+        return result;
+    }
 
-        SimpleHttpRequest request = SimpleHttpRequest.create(Method.GET, uri);
+    private <T> void send(ApiRequest<?> request, RequestTrace trace, Supplier<AsyncResponseConsumer<T>> responseConsumer,
+                          Timeout responseTimeout, CompletableFuture<T> result, int attempt, Runnable permitted) {
+        trace.attempt();
+
+        if (diskCache == null || !diskCache.isCacheable(request.getEndpoint())) {
+            acquire(request, trace, null, responseConsumer, responseTimeout, result, attempt, permitted);
+            return;
+        }
+        // the lookup is file IO, and retries after a 429 or a rejected token call in here from the IO reactor
+        try {
+            diskCache.getReplayExecutor().execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                CachedResponse cached;
+                try {
+                    cached = diskCache.lookup(request.getKey());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                if (cached != null) {
+                    result.whenComplete((value, error) -> cached.close());
+                }
+                if (cached != null && diskCache.isFresh(cached)) {
+                    replay(cached, trace, responseConsumer, result);
+                } else {
+                    acquire(request, trace, cached, responseConsumer, responseTimeout, result, attempt, permitted);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the disk cache is closed; the server can still answer
+            acquire(request, trace, null, responseConsumer, responseTimeout, result, attempt, permitted);
+        }
+    }
 
-        httpClient.execute(
-                request,
-                new FutureCallback<SimpleHttpResponse>() {
+    /**
+     * Waits for a permit of the least loaded token, then sends the attempt.
+     */
+    private <T> void acquire(ApiRequest<?> request, RequestTrace trace, CachedResponse cached,
+                             Supplier<AsyncResponseConsumer<T>> responseConsumer, Timeout responseTimeout,
+                             CompletableFuture<T> result, int attempt, Runnable permitted) {
+        TokenLease lease = lease();
+        if (lease == null) {
+            result.completeExceptionally(new UnauthorizedException(HttpStatus.SC_UNAUTHORIZED,
+                    "All " + tokenPool.size() + " API tokens were rejected"));
+            return;
+        }
+
+        CompletableFuture<Permit> permit = lease.rateLimiter().acquire(request.getPriority());
+        cancelWith(result, permit);
+        permit.whenComplete((granted, error) -> {
+            if (error != null) {
+                lease.release(null);
+                completeFailed(result, unwrap(error));
+                return;
+            }
+            trace.permitted();
+            permitted.run();
+            execute(request, trace, lease, cached, responseConsumer, responseTimeout, result, attempt, false,
+                    permitted);
+        });
+    }
+
+    /**
+     * Sends one attempt. A stale {@code cached} response is revalidated with the server, and cacheable responses
+     * are written to the disk cache as they arrive.
+     */
+    private <T> void execute(ApiRequest<?> request, RequestTrace trace, TokenLease lease, CachedResponse cached,
+                             Supplier<AsyncResponseConsumer<T>> responseConsumer, Timeout responseTimeout,
+                             CompletableFuture<T> result, int attempt, boolean hedge, Runnable permitted) {
+        if (result.isDone()) {
+            lease.release(null);
+            return;
+        }
+
+        SimpleHttpRequest httpRequest = SimpleHttpRequest.create(Method.GET, request.getKey().toUri(lease.token()));
+        httpRequest.setConfig(RequestConfig.custom().setResponseTimeout(responseTimeout).build());
+        int maxRetries = lease.rateLimiter().getConfig().getMaxRetries();
+
+        AsyncResponseConsumer<T> consumer = new StatusCheckingResponseConsumer<>(
+                new DecompressingResponseConsumer<>(responseConsumer.get()), request.getEndpoint(), lease.rateLimiter(), trace);
+        if (diskCache != null && diskCache.isCacheable(request.getEndpoint())) {
+            if (cached != null && cached.getEtag() != null) {
+                httpRequest.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+            }
+            if (cached != null && cached.getLastModified() != null) {
+                httpRequest.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+            }
+            consumer = new CachingResponseConsumer<>(consumer, diskCache, request.getKey(),
+                    cached != null && cached.isRevalidatable() ? cached : null);
+        }
+
+        Future<T> exchange = httpClient.execute(
+                SimpleRequestProducer.create(httpRequest),
+                consumer,
+                trace.context(),
+                new FutureCallback<T>() {
                     @Override
-                    public void completed(SimpleHttpResponse response) {
-                        try {
-                            List<EnrichedSymbol> enrichedSymbolList = objectMapper.readValue(response.getBodyText(), new TypeReference<List<EnrichedSymbol>>() {
-                            });
-
-                            for (EnrichedSymbol enrichedSymbol: enrichedSymbolList) {
-                                if (enrichedSymbol.getSymbol().equals(symbol)) {
-                                    futureEnrichedSymbolList.complete(List.of(enrichedSymbol));
-                                    return;
-                                }
-                            }
-                        } catch (JsonProcessingException e) {
-                            futureEnrichedSymbolList.completeExceptionally(e);
-                        }
+                    public void completed(T value) {
+                        lease.release(null);
+                        result.complete(value);
                     }
 
                     @Override
                     public void failed(Exception e) {
-                        futureEnrichedSymbolList.completeExceptionally(e);
+                        lease.release(e);
+                        if (result.isDone() || hedge) {
+                            result.completeExceptionally(e);
+                            return;
+                        }
+                        if (e instanceof RateLimitExceededException && attempt < maxRetries) {
+                            send(request, trace, responseConsumer, responseTimeout, result, attempt + 1, permitted);
+                        } else if (TokenPool.rejectsToken(e) && lease.canFailOver()) {
+                            // the rejected token is now benched, so this terminates once every token was tried
+                            send(request, trace, responseConsumer, responseTimeout, result, attempt, permitted);
+                        } else {
+                            result.completeExceptionally(e);
+                        }
                     }
 
                     @Override
                     public void cancelled() {
-                        futureEnrichedSymbolList.cancel(true);
+                        lease.release(null);
+                        result.cancel(false);
                     }
                 }
         );
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * Answers from a fresh disk cache entry without a permit or the network. Runs on the cache's replay executor.
+     */
+    private <T> void replay(CachedResponse cached, RequestTrace trace,
+                            Supplier<AsyncResponseConsumer<T>> responseConsumer, CompletableFuture<T> result) {
+        trace.responseReceived(HttpStatus.SC_OK);
+        AsyncResponseConsumer<T> consumer = new DecompressingResponseConsumer<>(responseConsumer.get());
+        try {
+            CachingResponseConsumer.replay(cached, new BasicHttpResponse(HttpStatus.SC_OK), consumer, trace.context(),
+                    new FutureCallback<T>() {
+                        @Override
+                        public void completed(T value) {
+                            result.complete(value);
+                        }
+
+                        @Override
+                        public void failed(Exception e) {
+                            result.completeExceptionally(e);
+                        }
 
-        return futureEnrichedSymbolList;
+                        @Override
+                        public void cancelled() {
+                            result.cancel(false);
+                        }
+                    });
+        } catch (HttpException | IOException | RuntimeException e) {
+            consumer.failed(e);
+            result.completeExceptionally(e);
+        } finally {
+            consumer.releaseResources();
+        }
     }
 
-    public CompletableFuture<List<EnrichedSymbol>> searchStock(String exchange, String mic) {
+    private TokenLease lease() {
+        return tokenPool != null ? tokenPool.lease() : TokenLease.of(token, rateLimiter);
+    }
 
-        CompletableFuture<List<EnrichedSymbol>> futureEnrichedSymbolList = new CompletableFuture<>();
+    private static void cancelWith(CompletableFuture<?> future, Future<?> dependency) {
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                dependency.cancel(true);
+            }
+        });
+    }
 
-        URI uri = URI.create(Endpoint.SYMBOL.url() + "?token=" + token + "&exchange=" + exchange + "&mic=" + mic);
+    /**
+     * {@code thenApply} that passes cancellation of the result on to {@code source}.
+     */
+    private static <T, R> CompletableFuture<R> thenApplyCancellable(CompletableFuture<T> source,
+                                                                    Function<? super T, ? extends R> mapper) {
+        CompletableFuture<R> mapped = source.thenApply(mapper);
+        cancelWith(mapped, source);
+        return mapped;
+    }
 
-        SimpleHttpRequest request = SimpleHttpRequest.create(Method.GET, uri);
+    private static void completeFailed(CompletableFuture<?> future, Throwable error) {
+        if (error instanceof CancellationException) {
+            future.cancel(true);
+        } else {
+            future.completeExceptionally(error);
+        }
+    }
 
-        httpClient.execute(
-                request,
-                new FutureCallback<SimpleHttpResponse>() {
-                    @Override
-                    public void completed(SimpleHttpResponse response) {
-                        try {
-                            List<EnrichedSymbol> enrichedSymbolList = objectMapper.readValue(response.getBodyText(), new TypeReference<List<EnrichedSymbol>>() {});
-                            futureEnrichedSymbolList.complete(enrichedSymbolList);
-                        } catch (JsonProcessingException e) {
-                            futureEnrichedSymbolList.completeExceptionally(e);
-                        }
-                    }
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 
-                    @Override
-                    public void failed(Exception e) {
-                        futureEnrichedSymbolList.completeExceptionally(e);
-                    }
+    private <T> CompletableFuture<T> load(ApiRequest<T> request, Supplier<CompletableFuture<T>> loader) {
+        CacheLookup<T> cached = responseCache.get(request.getKey());
+
+        if (cached.isFresh()) {
+            return CompletableFuture.completedFuture(cached.getValue());
+        }
+        if (cached.isStale()) {
+            refresh(request, loader);
+            return CompletableFuture.completedFuture(cached.getValue());
+        }
+        return refresh(request, loader);
+    }
 
-                    @Override
-                    public void cancelled() {
-                        futureEnrichedSymbolList.cancel(true);
-                    }
-                }
-        );
+    private <T> CompletableFuture<T> refresh(ApiRequest<T> request, Supplier<CompletableFuture<T>> loader) {
+        RequestKey key = request.getKey();
+        return coalescer.execute(key, request.getPriority(), request.getOptions(),
+                () -> thenApplyCancellable(loader.get(), value -> {
+                    T shared = readOnly(value);
+                    responseCache.put(key, shared);
+                    return shared;
+                }));
+    }
 
-        return futureEnrichedSymbolList;
+    /**
+     * A value about to be shared by coalesced callers and the response cache, with its lists made unmodifiable.
+     * Model objects are shared as they are and must not be changed.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T readOnly(T value) {
+        if (value instanceof List<?> list) {
+            return (T) Collections.unmodifiableList(list);
+        }
+        if (value instanceof SymbolLookup lookup && lookup.getResult() != null) {
+            return (T) new SymbolLookup(Collections.unmodifiableList(lookup.getResult()), lookup.getCount());
+        }
+        return value;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Builder;
+import lombok.Value;
+import org.alexv.finnhubclient.cache.DiskCacheConfig;
+import org.alexv.finnhubclient.cache.DiskResponseCache;
+import org.alexv.finnhubclient.ratelimit.RateLimiterConfig;
+
+import java.time.Duration;
+
+/**
+ * Transport settings for the HTTP client that {@link FinnhubClient} builds for itself. Not used when a
+ * ready-made {@code CloseableHttpAsyncClient} is passed in.
+ */
+@Value
+@Builder
+public class FinnhubClientConfig {
+
+    @Builder.Default
+    int ioThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Every API call goes to the same host, so this bounds how many HTTP/1.1 requests can be in flight.
+     */
+    @Builder.Default
+    int maxConnectionsPerRoute = 16;
+
+    @Builder.Default
+    int maxConnectionsTotal = 32;
+
+    /**
+     * Maximum lifetime of a pooled connection; {@code null} for unlimited.
+     */
+    @Builder.Default
+    Duration connectionTtl = Duration.ofMinutes(5);
+
+    /**
+     * How long an idle connection stays reusable when the server does not say.
+     */
+    @Builder.Default
+    Duration keepAlive = Duration.ofMinutes(1);
+
+    @Builder.Default
+    Duration connectTimeout = Duration.ofSeconds(10);
+
+    @Builder.Default
+    Duration socketTimeout = Duration.ofSeconds(5);
+
+    @Builder.Default
+    boolean tcpNoDelay = true;
+
+    /**
+     * Ask for gzip-compressed responses; symbol lists and long candle series shrink several times over.
+     */
+    @Builder.Default
+    boolean gzip = true;
+
+    /**
+     * Speak HTTP/2 only, multiplexing all calls over one connection per host instead of pooling HTTP/1.1
+     * connections. The pool settings do not apply then.
+     */
+    @Builder.Default
+    boolean http2 = false;
+
+    /**
+     * Connections to open when the client starts, so the first burst of calls does not pay for TCP and TLS
+     * handshakes; 0 to connect lazily. HTTP/2 opens one regardless of the number.
+     */
+    @Builder.Default
+    int warmUpConnections = 0;
+
+    /**
+     * Calls admitted at once, counting those still waiting for a rate-limit permit; 0 for no limit.
+     */
+    @Builder.Default
+    int maxInFlight = 256;
+
+    /**
+     * Calls waiting for admission once {@code maxInFlight} is reached. Calls beyond that fail fast with
+     * {@link CallRejectedException}; 0 rejects as soon as the limit is reached.
+     */
+    @Builder.Default
+    int maxQueuedCalls = Integer.MAX_VALUE;
+
+    /**
+     * How long {@link FinnhubClient#close()} lets calls in flight finish before cancelling them.
+     */
+    @Builder.Default
+    Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    @Builder.Default
+    RateLimiterConfig rateLimiter = RateLimiterConfig.defaults();
+
+    /**
+     * When set, responses of the endpoints it lists are cached on disk; see {@link DiskResponseCache}.
+     */
+    DiskCacheConfig diskCache;
+
+    @Builder.Default
+    CallOptions callOptions = CallOptions.defaults();
+
+    public static FinnhubClientConfig defaults() {
+        return FinnhubClientConfig.builder().build();
+    }
+}
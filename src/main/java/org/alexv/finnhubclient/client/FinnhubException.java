@@ -0,0 +1,19 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Getter;
+
+@Getter
+public class FinnhubException extends RuntimeException {
+
+    private final int statusCode;
+
+    public FinnhubException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public FinnhubException(int statusCode, String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+}
@@ -0,0 +1,171 @@
+package org.alexv.finnhubclient.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Incremental gzip decoder for response bodies that arrive in chunks: parses the member header, inflates the
+ * deflate stream as input comes in and checks the CRC32 and size in the trailer. HTTP bodies are a single gzip
+ * member; {@link #finish} fails if it was cut short.
+ */
+final class GzipDecoder {
+
+    private static final int MIN_HEADER = 10;
+    private static final int TRAILER = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    interface Sink {
+
+        void accept(ByteBuffer decoded) throws IOException;
+    }
+
+    private final Inflater inflater = new Inflater(true);
+    private final byte[] input = new byte[8192];
+    private final byte[] output = new byte[16384];
+    private final CRC32 crc = new CRC32();
+    private final byte[] trailer = new byte[TRAILER];
+
+    private byte[] header = new byte[64];
+    private int headerLength;
+    private boolean headerParsed;
+    private int trailerLength;
+
+    void decode(ByteBuffer src, Sink sink) throws IOException {
+        if (!headerParsed) {
+            if (!readHeader(src, sink)) {
+                return;
+            }
+        }
+
+        while (src.hasRemaining() && !inflater.finished()) {
+            int length = Math.min(src.remaining(), input.length);
+            src.get(input, 0, length);
+            inflate(input, 0, length, sink);
+        }
+        if (src.hasRemaining()) {
+            readTrailer(src);
+        }
+    }
+
+    /**
+     * Checks that the whole member, trailer included, has been decoded.
+     */
+    void finish() throws ZipException {
+        if (trailerLength < TRAILER) {
+            throw new ZipException(inflater.finished() ? "Truncated gzip trailer" : "Truncated gzip stream");
+        }
+    }
+
+    void close() {
+        inflater.end();
+    }
+
+    private boolean readHeader(ByteBuffer src, Sink sink) throws IOException {
+        int length = src.remaining();
+        if (headerLength + length > header.length) {
+            header = Arrays.copyOf(header, Math.max(header.length * 2, headerLength + length));
+        }
+        src.get(header, headerLength, length);
+        headerLength += length;
+
+        int end = headerEnd();
+        if (end < 0) {
+            return false;
+        }
+        headerParsed = true;
+        inflate(header, end, headerLength - end, sink);
+        header = null;
+        return true;
+    }
+
+    /**
+     * Offset where the deflate stream starts, or -1 while the header is incomplete.
+     */
+    private int headerEnd() throws ZipException {
+        if (headerLength < MIN_HEADER) {
+            return -1;
+        }
+        if ((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b || header[2] != 8) {
+            throw new ZipException("Not a gzip stream");
+        }
+
+        int flags = header[3];
+        int position = MIN_HEADER;
+        if ((flags & FEXTRA) != 0) {
+            if (position + 2 > headerLength) {
+                return -1;
+            }
+            position += 2 + ((header[position] & 0xff) | (header[position + 1] & 0xff) << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(position);
+        }
+        if ((flags & FCOMMENT) != 0 && position >= 0) {
+            position = skipZeroTerminated(position);
+        }
+        if ((flags & FHCRC) != 0 && position >= 0) {
+            position += 2;
+        }
+        return position >= 0 && position <= headerLength ? position : -1;
+    }
+
+    private int skipZeroTerminated(int from) {
+        for (int i = from; i < headerLength; i++) {
+            if (header[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private void inflate(byte[] bytes, int offset, int length, Sink sink) throws IOException {
+        inflater.setInput(bytes, offset, length);
+        try {
+            while (!inflater.finished() && !inflater.needsInput()) {
+                int inflated = inflater.inflate(output);
+                if (inflated > 0) {
+                    crc.update(output, 0, inflated);
+                    sink.accept(ByteBuffer.wrap(output, 0, inflated));
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("Unsupported preset dictionary");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+        if (inflater.finished() && inflater.getRemaining() > 0) {
+            // the input past the end of the deflate stream starts the trailer
+            int remaining = inflater.getRemaining();
+            readTrailer(ByteBuffer.wrap(bytes, offset + length - remaining, remaining));
+        }
+    }
+
+    private void readTrailer(ByteBuffer src) throws ZipException {
+        int length = Math.min(src.remaining(), TRAILER - trailerLength);
+        src.get(trailer, trailerLength, length);
+        trailerLength += length;
+        if (src.hasRemaining()) {
+            throw new ZipException("Unexpected data after the gzip member");
+        }
+        if (trailerLength < TRAILER) {
+            return;
+        }
+
+        ByteBuffer fields = ByteBuffer.wrap(trailer).order(ByteOrder.LITTLE_ENDIAN);
+        if (fields.getInt(0) != (int) crc.getValue()) {
+            throw new ZipException("Corrupt gzip trailer: CRC32 mismatch");
+        }
+        if (fields.getInt(4) != (int) inflater.getBytesWritten()) {
+            throw new ZipException("Corrupt gzip trailer: size mismatch");
+        }
+    }
+}
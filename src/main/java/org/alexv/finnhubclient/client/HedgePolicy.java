@@ -0,0 +1,40 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Sends a second copy of a call that is still unanswered when it passes a latency percentile of its endpoint,
+ * and takes whichever answers first. Hedges only go out when the rate limiter has a spare permit right away.
+ */
+@Value
+@Builder
+public class HedgePolicy {
+
+    /**
+     * Observed latency percentile after which a hedge is sent.
+     */
+    @Builder.Default
+    double percentile = 0.95;
+
+    /**
+     * Hedge delay used until the endpoint has {@link #minSamples} latency samples.
+     */
+    @Builder.Default
+    Duration initialDelay = Duration.ofMillis(500);
+
+    @Builder.Default
+    Duration minDelay = Duration.ofMillis(20);
+
+    @Builder.Default
+    int minSamples = 50;
+
+    @Builder.Default
+    int maxHedges = 1;
+
+    public static HedgePolicy defaults() {
+        return HedgePolicy.builder().build();
+    }
+}
@@ -0,0 +1,140 @@
+package org.alexv.finnhubclient.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.apache.hc.client5.http.async.methods.AbstractBinResponseConsumer;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Predicate;
+
+/**
+ * Decodes the elements of a top-level JSON array as the response bytes arrive, handing each one to
+ * the sink without ever holding the whole body. The sink returns {@code false} to stop early, which
+ * aborts the exchange with {@link StreamStoppedException}; a malformed body aborts it the same way.
+ */
+class JsonArrayStreamConsumer<T> extends AbstractBinResponseConsumer<Long> {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ObjectReader reader;
+    private final Predicate<? super T> sink;
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    private JsonParser parser;
+    private TokenBuffer element;
+    private int depth;
+    private long count;
+    private boolean stopped;
+
+    JsonArrayStreamConsumer(ObjectReader reader, Predicate<? super T> sink) {
+        this.reader = reader;
+        this.sink = sink;
+    }
+
+    @Override
+    protected void start(HttpResponse response, ContentType contentType) throws HttpException, IOException {
+        parser = reader.getFactory().createNonBlockingByteArrayParser();
+    }
+
+    @Override
+    protected int capacityIncrement() {
+        return CHUNK_SIZE;
+    }
+
+    @Override
+    protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+        if (stopped) {
+            src.position(src.limit());
+            return;
+        }
+
+        ByteArrayFeeder feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+
+        try {
+            while (src.hasRemaining()) {
+                int length = Math.min(src.remaining(), chunk.length);
+                src.get(chunk, 0, length);
+                feeder.feedInput(chunk, 0, length);
+                drain();
+            }
+            if (endOfStream) {
+                feeder.endOfInput();
+                drain();
+            }
+        } catch (JsonProcessingException e) {
+            stopped = true;
+            throw new StreamStoppedException(count, e);
+        }
+    }
+
+    @Override
+    protected Long buildResult() {
+        return count;
+    }
+
+    @Override
+    public void releaseResources() {
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (depth == 0) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "Expected a JSON array but found " + token);
+                }
+                depth = 1;
+                continue;
+            }
+            if (depth == 1) {
+                if (token == JsonToken.END_ARRAY) {
+                    depth = 0;
+                    continue;
+                }
+                element = new TokenBuffer(parser);
+            }
+
+            element.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+
+            if (depth == 1) {
+                emit();
+            }
+        }
+    }
+
+    private void emit() throws IOException {
+        T value;
+        try (JsonParser elementParser = element.asParser(parser)) {
+            value = reader.readValue(elementParser);
+        }
+        element = null;
+        count++;
+
+        if (!sink.test(value)) {
+            stopped = true;
+            throw new StreamStoppedException(count);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.alexv.finnhubclient.client;
+
+import org.alexv.finnhubclient.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latency of successful attempts per {@link Endpoint}, from which hedge delays are derived.
+ */
+class LatencyTracker {
+
+    private final Map<Endpoint, LatencyHistogram> histograms = new EnumMap<>(Endpoint.class);
+
+    LatencyTracker() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, new LatencyHistogram());
+        }
+    }
+
+    void record(Endpoint endpoint, long nanos) {
+        histograms.get(endpoint).record(nanos);
+    }
+
+    Duration hedgeDelay(Endpoint endpoint, HedgePolicy policy) {
+        LatencyHistogram.Snapshot snapshot = histograms.get(endpoint).snapshot();
+
+        if (snapshot.getCount() < policy.getMinSamples()) {
+            return policy.getInitialDelay();
+        }
+        Duration delay = snapshot.percentile(policy.getPercentile());
+        return delay.compareTo(policy.getMinDelay()) < 0 ? policy.getMinDelay() : delay;
+    }
+}
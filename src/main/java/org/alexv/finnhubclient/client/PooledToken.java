@@ -0,0 +1,86 @@
+package org.alexv.finnhubclient.client;
+
+import org.alexv.finnhubclient.ratelimit.RateLimiter;
+
+import java.time.Duration;
+
+/**
+ * Health and load of one token of a {@link TokenPool}. Guarded by the pool's lock.
+ */
+final class PooledToken {
+
+    private final ApiToken token;
+    private final RateLimiter rateLimiter;
+
+    private int inFlight;
+    private long requests;
+    private long throttled;
+    private long unauthorized;
+    private long throttledUntil;
+    private long unauthorizedUntil;
+
+    PooledToken(ApiToken token) {
+        this.token = token;
+        this.rateLimiter = new RateLimiter(token.getRateLimiter());
+    }
+
+    String token() {
+        return token.getToken();
+    }
+
+    RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    TokenState state(long now) {
+        if (unauthorizedUntil - now > 0) {
+            return TokenState.UNAUTHORIZED;
+        }
+        return throttledUntil - now > 0 ? TokenState.THROTTLED : TokenState.HEALTHY;
+    }
+
+    /**
+     * Requests in flight or waiting for a permit, per unit of weight.
+     */
+    double load() {
+        return (inFlight + 1.0) / Math.max(1, token.getWeight());
+    }
+
+    long throttledUntil() {
+        return throttledUntil;
+    }
+
+    void begin() {
+        inFlight++;
+        requests++;
+    }
+
+    void end() {
+        inFlight--;
+    }
+
+    void succeeded() {
+        unauthorizedUntil = 0;
+    }
+
+    void throttled(long until) {
+        throttled++;
+        if (until - throttledUntil > 0) {
+            throttledUntil = until;
+        }
+    }
+
+    void unauthorized(long until) {
+        unauthorized++;
+        unauthorizedUntil = until;
+    }
+
+    TokenStats stats(long now) {
+        return new TokenStats(TokenPool.mask(token.getToken()), token.getWeight(), state(now), inFlight, requests,
+                throttled, unauthorized, rateLimiter.getStats());
+    }
+
+    static long nanosFrom(long now, Duration delay) {
+        return now + Math.max(0, delay.toNanos());
+    }
+}
@@ -0,0 +1,16 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class RateLimitExceededException extends FinnhubException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(429, message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,147 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Value;
+import org.alexv.finnhubclient.ratelimit.Priority;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight request between all concurrent callers asking for the same {@link RequestKey}.
+ * Every caller gets its own future, so cancelling it only detaches that caller; the shared request is
+ * cancelled once no caller is left waiting for it. All of them are completed with the same value, which is
+ * therefore read-only.
+ * <p>
+ * Only calls with the same priority and {@link CallOptions} share a request, so a joiner never waits behind a
+ * lower-priority permit or under someone else's deadline, retry or hedge settings.
+ */
+public class RequestCoalescer {
+
+    private final ConcurrentMap<FlightKey, Flight<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Coalesces with other calls for {@code key} made through this method.
+     */
+    public <T> CompletableFuture<T> execute(RequestKey key, Supplier<CompletableFuture<T>> loader) {
+        return execute(key, null, null, loader);
+    }
+
+    /**
+     * Coalesces with other calls for {@code key} at the same {@code priority} and with equal {@code options};
+     * {@code null} options stand for the client default.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(RequestKey request, Priority priority, CallOptions options,
+                                            Supplier<CompletableFuture<T>> loader) {
+        FlightKey key = new FlightKey(request, priority, options);
+        while (true) {
+            Flight<T> created = new Flight<>(key);
+            Flight<T> flight = (Flight<T>) inFlight.putIfAbsent(key, created);
+            if (flight == null) {
+                flight = created;
+            }
+
+            CompletableFuture<T> waiter = flight.join();
+            if (waiter == null) {
+                inFlight.remove(key, flight);
+                continue;
+            }
+            if (flight == created) {
+                created.start(loader);
+            }
+            return waiter;
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private final class Flight<T> {
+
+        private final FlightKey key;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private CompletableFuture<T> source;
+        private int waiters;
+        private boolean abandoned;
+
+        private Flight(FlightKey key) {
+            this.key = key;
+        }
+
+        private void start(Supplier<CompletableFuture<T>> loader) {
+            CompletableFuture<T> started;
+            try {
+                started = loader.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+
+            synchronized (this) {
+                source = started;
+                if (abandoned) {
+                    source.cancel(true);
+                }
+            }
+
+            started.whenComplete((value, error) -> {
+                inFlight.remove(key, this);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+
+        private synchronized CompletableFuture<T> join() {
+            if (abandoned) {
+                return null;
+            }
+            waiters++;
+
+            CompletableFuture<T> waiter = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error != null) {
+                    waiter.completeExceptionally(error);
+                } else {
+                    waiter.complete(value);
+                }
+            });
+            waiter.whenComplete((value, error) -> {
+                if (waiter.isCancelled()) {
+                    leave();
+                }
+            });
+            return waiter;
+        }
+
+        private void leave() {
+            CompletableFuture<T> toCancel;
+
+            synchronized (this) {
+                if (--waiters > 0 || result.isDone()) {
+                    return;
+                }
+                abandoned = true;
+                toCancel = source;
+            }
+
+            inFlight.remove(key, this);
+            result.cancel(true);
+            if (toCancel != null) {
+                toCancel.cancel(true);
+            }
+        }
+    }
+
+    @Value
+    private static class FlightKey {
+
+        RequestKey request;
+        Priority priority;
+        CallOptions options;
+    }
+}
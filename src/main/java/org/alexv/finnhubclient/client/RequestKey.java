@@ -0,0 +1,73 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Getter
+@EqualsAndHashCode
+public final class RequestKey {
+
+    private final Endpoint endpoint;
+    private final SortedMap<String, String> params;
+
+    private RequestKey(Endpoint endpoint, SortedMap<String, String> params) {
+        this.endpoint = endpoint;
+        this.params = Collections.unmodifiableSortedMap(params);
+    }
+
+    public static RequestKey of(Endpoint endpoint, Map<String, String> params) {
+        return new RequestKey(endpoint, new TreeMap<>(params));
+    }
+
+    public static RequestKey of(Endpoint endpoint, String... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Query parameters must be given as name/value pairs");
+        }
+
+        SortedMap<String, String> params = new TreeMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            params.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return new RequestKey(endpoint, params);
+    }
+
+    public URI toUri(String token) {
+        StringBuilder uri = new StringBuilder(endpoint.url())
+                .append("?token=")
+                .append(encode(token));
+
+        params.forEach((name, value) -> uri.append('&').append(encode(name)).append('=').append(encode(value)));
+        return URI.create(uri.toString());
+    }
+
+    /**
+     * The request without the token, in a form that is unambiguous and stable across processes, e.g.
+     * {@code SYMBOL?exchange=US}.
+     */
+    public String toKeyString() {
+        StringBuilder key = new StringBuilder(endpoint.name());
+        char separator = '?';
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            key.append(separator).append(encode(param.getKey())).append('=').append(encode(param.getValue()));
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    @Override
+    public String toString() {
+        return endpoint + params.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
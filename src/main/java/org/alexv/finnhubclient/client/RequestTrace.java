@@ -0,0 +1,149 @@
+package org.alexv.finnhubclient.client;
+
+import org.alexv.finnhubclient.metrics.MetricsListener;
+import org.alexv.finnhubclient.metrics.RequestMetrics;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timestamps of one API call as it moves through the pipeline. When metrics are disabled every call
+ * shares {@link #DISABLED}, whose marks are no-ops, so uninstrumented clients pay neither allocation nor clock reads.
+ */
+final class RequestTrace {
+
+    static final String ATTRIBUTE = RequestTrace.class.getName();
+
+    static final RequestTrace DISABLED = new RequestTrace(null, MetricsListener.NONE, 0);
+
+    private final Endpoint endpoint;
+    private final MetricsListener listener;
+    private final long startedAt;
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private volatile long queuedAt;
+    private volatile long permittedAt;
+    private volatile long connectedAt;
+    private volatile long firstByteAt;
+    private volatile int statusCode;
+    private volatile int attempts;
+
+    private RequestTrace(Endpoint endpoint, MetricsListener listener, long startedAt) {
+        this.endpoint = endpoint;
+        this.listener = listener;
+        this.startedAt = startedAt;
+        this.queuedAt = startedAt;
+    }
+
+    static RequestTrace start(Endpoint endpoint, MetricsListener listener) {
+        if (listener == MetricsListener.NONE) {
+            return DISABLED;
+        }
+
+        listener.onRequestStart(endpoint);
+        return new RequestTrace(endpoint, listener, System.nanoTime());
+    }
+
+    /**
+     * The HTTP context to execute with, carrying this trace to {@link ConnectTimingExecHandler}.
+     */
+    HttpContext context() {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(ATTRIBUTE, this);
+        return context;
+    }
+
+    boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    void attempt() {
+        if (isEnabled()) {
+            attempts++;
+            queuedAt = System.nanoTime();
+            permittedAt = 0;
+            connectedAt = 0;
+            firstByteAt = 0;
+        }
+    }
+
+    /**
+     * A hedge racing the current attempt; its marks only count where the attempt has none yet.
+     */
+    void hedged() {
+        if (isEnabled()) {
+            attempts++;
+        }
+    }
+
+    void permitted() {
+        if (isEnabled()) {
+            permittedAt = System.nanoTime();
+        }
+    }
+
+    void connected() {
+        if (isEnabled() && connectedAt == 0) {
+            connectedAt = System.nanoTime();
+        }
+    }
+
+    void responseReceived(int status) {
+        if (isEnabled()) {
+            if (firstByteAt == 0) {
+                firstByteAt = System.nanoTime();
+            }
+            statusCode = status;
+        }
+    }
+
+    void received(int count) {
+        if (isEnabled()) {
+            bytes.addAndGet(count);
+        }
+    }
+
+    void finish(Throwable error) {
+        if (!isEnabled() || !finished.compareAndSet(false, true)) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        listener.onRequestEnd(new RequestMetrics(endpoint, outcome(error), statusCode, attempts, bytes.get(),
+                between(queuedAt, permittedAt), between(permittedAt, connectedAt),
+                between(connectedAt != 0 ? connectedAt : permittedAt, firstByteAt),
+                between(firstByteAt, now), Duration.ofNanos(now - startedAt), error));
+    }
+
+    private static Duration between(long from, long to) {
+        return from == 0 || to == 0 ? null : Duration.ofNanos(to - from);
+    }
+
+    private static RequestMetrics.Outcome outcome(Throwable error) {
+        if (error == null) {
+            return RequestMetrics.Outcome.SUCCESS;
+        }
+        if (error instanceof DeadlineExceededException) {
+            return RequestMetrics.Outcome.DEADLINE_EXCEEDED;
+        }
+        if (error instanceof ResponseDecodingException) {
+            return RequestMetrics.Outcome.DECODE_FAILURE;
+        }
+        if (error instanceof FinnhubException) {
+            return RequestMetrics.Outcome.HTTP_ERROR;
+        }
+        if (error instanceof CancellationException) {
+            return RequestMetrics.Outcome.CANCELLED;
+        }
+        return RequestMetrics.Outcome.FAILED;
+    }
+}
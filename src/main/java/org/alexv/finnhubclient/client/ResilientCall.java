@@ -0,0 +1,243 @@
+package org.alexv.finnhubclient.client;
+
+import org.apache.hc.core5.util.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one API call as a series of attempts under its {@link CallOptions}: retries transient failures after a
+ * jittered backoff, hedges an attempt that runs past the endpoint's latency percentile, and fails the call with
+ * {@link DeadlineExceededException} once the deadline passes. The first successful attempt wins and every other
+ * attempt still running is cancelled. Latency is measured from the moment an attempt holds its rate-limit permit,
+ * so time spent queueing under throttling neither inflates the hedge delay nor counts against it.
+ */
+final class ResilientCall<T> {
+
+    private static final ScheduledExecutorService TIMER = timer();
+
+    /**
+     * Starts one exchange, running {@code permitted} each time it is granted a rate-limit permit. Returns
+     * {@code null} when a hedge was asked for but no spare permit was available.
+     */
+    interface Attempt<T> {
+
+        CompletableFuture<T> start(Timeout responseTimeout, boolean hedge, Runnable permitted);
+    }
+
+    private final Endpoint endpoint;
+    private final CallOptions options;
+    private final boolean replayable;
+    private final LatencyTracker latencies;
+    private final Attempt<T> attempt;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final long deadlineAt;
+
+    private final List<CompletableFuture<T>> running = new ArrayList<>();
+    private final List<ScheduledFuture<?>> timers = new ArrayList<>();
+    private int attempts;
+    private int hedges;
+
+    /**
+     * @param replayable whether the call may be sent again; streamed calls that already handed elements
+     *                   to their sink are not
+     */
+    ResilientCall(Endpoint endpoint, CallOptions options, boolean replayable, LatencyTracker latencies,
+                  Attempt<T> attempt) {
+        this.endpoint = endpoint;
+        this.options = options;
+        this.replayable = replayable;
+        this.latencies = latencies;
+        this.attempt = attempt;
+        this.deadlineAt = options.getDeadline() == null ? 0 : System.nanoTime() + options.getDeadline().toNanos();
+    }
+
+    CompletableFuture<T> execute() {
+        Duration deadline = options.getDeadline();
+        if (deadline != null) {
+            schedule(() -> result.completeExceptionally(new DeadlineExceededException(
+                    endpoint + " call exceeded its deadline of " + deadline, deadline)), deadline.toNanos());
+        }
+        result.whenComplete((value, error) -> cancelAll());
+
+        start(false);
+        return result;
+    }
+
+    private void start(boolean hedge) {
+        Timeout responseTimeout = responseTimeout();
+        if (result.isDone() || responseTimeout == null) {
+            return;
+        }
+
+        Run run = new Run(hedge);
+        CompletableFuture<T> future;
+        try {
+            future = attempt.start(responseTimeout, hedge, run::permitted);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        if (future == null) {
+            return;
+        }
+
+        synchronized (this) {
+            if (hedge) {
+                hedges++;
+            } else {
+                attempts++;
+            }
+            running.add(future);
+        }
+        if (result.isDone()) {
+            future.cancel(true);
+            return;
+        }
+
+        CompletableFuture<T> started = future;
+        started.whenComplete((value, error) -> {
+            run.done = true;
+            completed(started, run, value, error);
+        });
+    }
+
+    private void scheduleHedge(Run primary) {
+        HedgePolicy hedge = options.getHedge();
+        if (hedge == null || !replayable) {
+            return;
+        }
+        synchronized (this) {
+            if (hedges >= hedge.getMaxHedges()) {
+                return;
+            }
+        }
+
+        schedule(() -> {
+            if (!primary.done) {
+                start(true);
+            }
+        }, latencies.hedgeDelay(endpoint, hedge).toNanos());
+    }
+
+    private void completed(CompletableFuture<T> future, Run run, T value, Throwable error) {
+        if (error == null) {
+            // answers from the disk cache never held a permit and say nothing about server latency
+            if (run.permittedAt != 0) {
+                latencies.record(endpoint, System.nanoTime() - run.permittedAt);
+            }
+            synchronized (this) {
+                running.remove(future);
+            }
+            result.complete(value);
+            return;
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        long backoff = -1;
+        synchronized (this) {
+            running.remove(future);
+            if (result.isDone() || !running.isEmpty()) {
+                // another attempt may still answer
+                return;
+            }
+            RetryPolicy retry = options.getRetry();
+            if (replayable && attempts < retry.getMaxAttempts() && retry.isRetryable(cause)) {
+                backoff = retry.backoff(attempts).toNanos();
+                if (!fitsDeadline(backoff)) {
+                    backoff = -1;
+                }
+            }
+        }
+
+        if (backoff < 0) {
+            result.completeExceptionally(cause);
+        } else {
+            schedule(() -> start(false), backoff);
+        }
+    }
+
+    private Timeout responseTimeout() {
+        long timeout = options.getAttemptTimeout().toNanos();
+        if (deadlineAt != 0) {
+            long remaining = deadlineAt - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            timeout = Math.min(timeout, remaining);
+        }
+        return Timeout.ofMilliseconds(Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeout)));
+    }
+
+    private boolean fitsDeadline(long delayNanos) {
+        return deadlineAt == 0 || deadlineAt - System.nanoTime() > delayNanos;
+    }
+
+    private void schedule(Runnable task, long delayNanos) {
+        ScheduledFuture<?> timer = TIMER.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+        synchronized (this) {
+            timers.add(timer);
+        }
+        if (result.isDone()) {
+            timer.cancel(false);
+        }
+    }
+
+    private void cancelAll() {
+        List<CompletableFuture<T>> attemptsToCancel;
+        List<ScheduledFuture<?>> timersToCancel;
+        synchronized (this) {
+            attemptsToCancel = new ArrayList<>(running);
+            timersToCancel = new ArrayList<>(timers);
+            running.clear();
+            timers.clear();
+        }
+
+        for (CompletableFuture<T> future : attemptsToCancel) {
+            future.cancel(true);
+        }
+        for (ScheduledFuture<?> timer : timersToCancel) {
+            timer.cancel(false);
+        }
+    }
+
+    private static ScheduledExecutorService timer() {
+        ScheduledThreadPoolExecutor timer = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "finnhub-call-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Timing of one attempt. The latest permit counts, as an attempt re-queued after a 429 waits for a new one.
+     */
+    private final class Run {
+
+        private final boolean hedge;
+        private volatile long permittedAt;
+        private volatile boolean done;
+        private boolean hedgeScheduled;
+
+        private Run(boolean hedge) {
+            this.hedge = hedge;
+        }
+
+        private synchronized void permitted() {
+            permittedAt = System.nanoTime();
+            if (!hedge && !hedgeScheduled) {
+                hedgeScheduled = true;
+                scheduleHedge(this);
+            }
+        }
+    }
+}
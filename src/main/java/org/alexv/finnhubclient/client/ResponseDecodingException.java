@@ -0,0 +1,8 @@
+package org.alexv.finnhubclient.client;
+
+public class ResponseDecodingException extends FinnhubException {
+
+    public ResponseDecodingException(int statusCode, String message, Throwable cause) {
+        super(statusCode, message, cause);
+    }
+}
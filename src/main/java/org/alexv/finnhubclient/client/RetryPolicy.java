@@ -0,0 +1,63 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Builder;
+import lombok.Value;
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries of failed calls. Only transport failures and 5xx gateway/unavailable responses are retried; every API call
+ * is an idempotent GET. HTTP 429 is not covered here, the {@link org.alexv.finnhubclient.ratelimit.RateLimiter}
+ * handles it. Backoff uses full jitter: a random delay up to the exponential bound.
+ */
+@Value
+@Builder
+public class RetryPolicy {
+
+    /**
+     * Attempts including the first one; 1 disables retries.
+     */
+    @Builder.Default
+    int maxAttempts = 3;
+
+    @Builder.Default
+    Duration initialBackoff = Duration.ofMillis(100);
+
+    @Builder.Default
+    Duration maxBackoff = Duration.ofSeconds(2);
+
+    @Builder.Default
+    double multiplier = 2;
+
+    public static RetryPolicy defaults() {
+        return RetryPolicy.builder().build();
+    }
+
+    public static RetryPolicy none() {
+        return RetryPolicy.builder().maxAttempts(1).build();
+    }
+
+    public boolean isRetryable(Throwable error) {
+        if (error instanceof IOException) {
+            return true;
+        }
+        if (error instanceof FinnhubException finnhubException && !(error instanceof ResponseDecodingException)) {
+            int status = finnhubException.getStatusCode();
+            return status == HttpStatus.SC_INTERNAL_SERVER_ERROR || status == HttpStatus.SC_BAD_GATEWAY
+                    || status == HttpStatus.SC_SERVICE_UNAVAILABLE || status == HttpStatus.SC_GATEWAY_TIMEOUT;
+        }
+        return false;
+    }
+
+    /**
+     * Delay before the given retry, counting from 1.
+     */
+    public Duration backoff(int retry) {
+        double bound = initialBackoff.toNanos() * Math.pow(multiplier, retry - 1);
+        long cap = (long) Math.min(bound, maxBackoff.toNanos());
+        return Duration.ofNanos(cap > 0 ? ThreadLocalRandom.current().nextLong(cap + 1) : 0);
+    }
+}
@@ -0,0 +1,129 @@
+package org.alexv.finnhubclient.client;
+
+import org.alexv.finnhubclient.ratelimit.RateLimiter;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Feeds the rate limiter with every response and only hands successful responses to the delegate.
+ * Error responses are drained here and fail the exchange with a typed {@link FinnhubException}.
+ */
+class StatusCheckingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+
+    private static final int MAX_ERROR_BODY = 512;
+
+    private final AsyncResponseConsumer<T> delegate;
+    private final Endpoint endpoint;
+    private final RateLimiter rateLimiter;
+    private final RequestTrace trace;
+
+    private volatile HttpResponse rejected;
+    private volatile FutureCallback<T> resultCallback;
+    private ByteArrayBuffer errorBody;
+    private int errorBodyLimit;
+
+    StatusCheckingResponseConsumer(AsyncResponseConsumer<T> delegate, Endpoint endpoint, RateLimiter rateLimiter,
+                                   RequestTrace trace) {
+        this.delegate = delegate;
+        this.endpoint = endpoint;
+        this.rateLimiter = rateLimiter;
+        this.trace = trace;
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                FutureCallback<T> resultCallback) throws HttpException, IOException {
+        trace.responseReceived(response.getCode());
+        rateLimiter.onResponse(response);
+
+        if (response.getCode() >= HttpStatus.SC_SUCCESS && response.getCode() < HttpStatus.SC_REDIRECTION) {
+            delegate.consumeResponse(response, entityDetails, context, resultCallback);
+            return;
+        }
+
+        this.rejected = response;
+        this.resultCallback = resultCallback;
+        this.errorBody = new ByteArrayBuffer(MAX_ERROR_BODY);
+        // an encoded error body would only garble the message
+        this.errorBodyLimit = entityDetails == null || entityDetails.getContentEncoding() == null ? MAX_ERROR_BODY : 0;
+        if (entityDetails == null) {
+            resultCallback.failed(error());
+        }
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) throws HttpException, IOException {
+        delegate.informationResponse(response, context);
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        if (rejected != null) {
+            capacityChannel.update(Integer.MAX_VALUE);
+        } else {
+            delegate.updateCapacity(capacityChannel);
+        }
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+        trace.received(src.remaining());
+
+        if (rejected == null) {
+            delegate.consume(src);
+            return;
+        }
+
+        int length = Math.min(src.remaining(), errorBodyLimit - errorBody.length());
+        if (length > 0) {
+            byte[] bytes = new byte[length];
+            src.get(bytes);
+            errorBody.append(bytes, 0, length);
+        }
+        src.position(src.limit());
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) throws HttpException, IOException {
+        if (rejected != null) {
+            resultCallback.failed(error());
+        } else {
+            delegate.streamEnd(trailers);
+        }
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        delegate.failed(cause);
+    }
+
+    @Override
+    public void releaseResources() {
+        delegate.releaseResources();
+    }
+
+    private FinnhubException error() {
+        int status = rejected.getCode();
+        String body = new String(errorBody.array(), 0, errorBody.length(), StandardCharsets.UTF_8).trim();
+        String message = endpoint + " returned HTTP " + status + (body.isEmpty() ? "" : ": " + body);
+
+        return switch (status) {
+            case HttpStatus.SC_TOO_MANY_REQUESTS -> new RateLimitExceededException(message, rateLimiter.retryAfter(rejected));
+            case HttpStatus.SC_UNAUTHORIZED, HttpStatus.SC_FORBIDDEN -> new UnauthorizedException(status, message);
+            default -> new FinnhubException(status, message);
+        };
+    }
+}
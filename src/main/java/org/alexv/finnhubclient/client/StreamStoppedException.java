@@ -0,0 +1,28 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+// an InterruptedIOException so that the client's retry strategy does not resend the request
+@Getter
+class StreamStoppedException extends InterruptedIOException {
+
+    private final long count;
+
+    StreamStoppedException(long count) {
+        super("Stream stopped by consumer after " + count + " elements");
+        this.count = count;
+    }
+
+    StreamStoppedException(long count, IOException cause) {
+        super("Stream failed after " + count + " elements: " + cause.getMessage());
+        this.count = count;
+        initCause(cause);
+    }
+
+    boolean isFailure() {
+        return getCause() != null;
+    }
+}
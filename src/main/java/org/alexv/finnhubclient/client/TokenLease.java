@@ -0,0 +1,50 @@
+package org.alexv.finnhubclient.client;
+
+import org.alexv.finnhubclient.ratelimit.RateLimiter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The token and rate limiter one attempt of a call goes out with. Reports the attempt's outcome back to the
+ * {@link TokenPool}, if the token came from one, exactly once.
+ */
+final class TokenLease {
+
+    private final TokenPool pool;
+    private final PooledToken pooled;
+    private final String token;
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    TokenLease(TokenPool pool, PooledToken pooled, String token, RateLimiter rateLimiter) {
+        this.pool = pool;
+        this.pooled = pooled;
+        this.token = token;
+        this.rateLimiter = rateLimiter;
+    }
+
+    static TokenLease of(String token, RateLimiter rateLimiter) {
+        return new TokenLease(null, null, token, rateLimiter);
+    }
+
+    String token() {
+        return token;
+    }
+
+    RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Whether another token could take over after this one was rejected.
+     */
+    boolean canFailOver() {
+        return pool != null && pool.hasUsableToken();
+    }
+
+    void release(Throwable error) {
+        if (released.compareAndSet(false, true) && pool != null) {
+            pool.release(pooled, error);
+        }
+    }
+}
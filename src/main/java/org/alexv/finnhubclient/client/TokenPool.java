@@ -0,0 +1,177 @@
+package org.alexv.finnhubclient.client;
+
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spreads calls over several API tokens, each with its own rate limiter, so that throughput grows with the
+ * number of tokens. Every attempt goes to the healthy token with the fewest requests in flight per unit of
+ * weight. A token answered with 429 is passed over until its {@code Retry-After} has elapsed, and one answered with
+ * 401 until {@code unauthorizedBackoff} has; the call itself is retried on another token. A 403 only means the plan
+ * does not cover the endpoint or exchange, so it fails that call and leaves the token in the pool.
+ */
+public class TokenPool implements AutoCloseable {
+
+    private final TokenPoolConfig config;
+    private final List<PooledToken> tokens = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int next;
+
+    public TokenPool(TokenPoolConfig config) {
+        if (config.getTokens().isEmpty()) {
+            throw new IllegalArgumentException("A token pool needs at least one token");
+        }
+        for (ApiToken token : config.getTokens()) {
+            if (token.getToken() == null || token.getToken().isBlank()) {
+                throw new IllegalArgumentException("Blank API token in token pool");
+            }
+            if (token.getWeight() <= 0) {
+                throw new IllegalArgumentException("Token weight must be positive: " + token);
+            }
+            tokens.add(new PooledToken(token));
+        }
+        this.config = config;
+    }
+
+    public static TokenPool of(String... tokens) {
+        return new TokenPool(TokenPoolConfig.of(tokens));
+    }
+
+    public TokenPoolConfig getConfig() {
+        return config;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    public List<TokenStats> getStats() {
+        long now = System.nanoTime();
+        List<TokenStats> stats = new ArrayList<>(tokens.size());
+
+        lock.lock();
+        try {
+            for (PooledToken token : tokens) {
+                stats.add(token.stats(now));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * The first configured token, for connections that take a single token such as the trade stream.
+     */
+    public String primaryToken() {
+        return tokens.get(0).token();
+    }
+
+    @Override
+    public void close() {
+        for (PooledToken token : tokens) {
+            token.rateLimiter().close();
+        }
+    }
+
+    /**
+     * Picks the token for one attempt: the least loaded healthy token, or when every token is throttled the one
+     * whose throttling ends first. {@code null} when every token is unauthorized.
+     */
+    TokenLease lease() {
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            PooledToken best = null;
+            TokenState bestState = null;
+            int size = tokens.size();
+
+            // rotating the starting point spreads ties instead of always favouring the first token
+            int start = next;
+            next = (next + 1) % size;
+            for (int i = 0; i < size; i++) {
+                PooledToken token = tokens.get((start + i) % size);
+                TokenState state = token.state(now);
+                if (state == TokenState.UNAUTHORIZED) {
+                    continue;
+                }
+                if (best == null || isBetter(token, state, best, bestState)) {
+                    best = token;
+                    bestState = state;
+                }
+            }
+
+            if (best == null) {
+                return null;
+            }
+            best.begin();
+            return new TokenLease(this, best, best.token(), best.rateLimiter());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean hasUsableToken() {
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            for (PooledToken token : tokens) {
+                if (token.state(now) != TokenState.UNAUTHORIZED) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(PooledToken token, Throwable error) {
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            token.end();
+            if (error == null) {
+                token.succeeded();
+            } else if (error instanceof RateLimitExceededException rateLimited) {
+                token.throttled(PooledToken.nanosFrom(now, rateLimited.getRetryAfter()));
+            } else if (rejectsToken(error)) {
+                token.unauthorized(PooledToken.nanosFrom(now, config.getUnauthorizedBackoff()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether {@code error} says the token itself is invalid, as opposed to not entitled to one endpoint.
+     */
+    static boolean rejectsToken(Throwable error) {
+        return error instanceof UnauthorizedException unauthorized
+                && unauthorized.getStatusCode() == HttpStatus.SC_UNAUTHORIZED;
+    }
+
+    private static boolean isBetter(PooledToken token, TokenState state, PooledToken best, TokenState bestState) {
+        if (state != bestState) {
+            return state == TokenState.HEALTHY;
+        }
+        if (state == TokenState.THROTTLED) {
+            return token.throttledUntil() - best.throttledUntil() < 0;
+        }
+        return token.load() < best.load();
+    }
+
+    static String mask(String token) {
+        if (token == null || token.length() <= 4) {
+            return "****";
+        }
+        return "****" + token.substring(token.length() - 4);
+    }
+}
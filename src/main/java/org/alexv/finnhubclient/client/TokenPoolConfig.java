@@ -0,0 +1,29 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Value
+@Builder
+public class TokenPoolConfig {
+
+    @Singular
+    List<ApiToken> tokens;
+
+    /**
+     * How long a token answered with 401 is left out before a request probes it again.
+     */
+    @Builder.Default
+    Duration unauthorizedBackoff = Duration.ofMinutes(15);
+
+    public static TokenPoolConfig of(String... tokens) {
+        return TokenPoolConfig.builder()
+                .tokens(Arrays.stream(tokens).map(ApiToken::of).toList())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package org.alexv.finnhubclient.client;
+
+public enum TokenState {
+
+    HEALTHY,
+
+    /**
+     * Answered 429 and waiting out its {@code Retry-After}; only used when every token is throttled.
+     */
+    THROTTLED,
+
+    /**
+     * Answered 401 and left out until the pool's {@code unauthorizedBackoff} has passed.
+     */
+    UNAUTHORIZED
+}
@@ -0,0 +1,21 @@
+package org.alexv.finnhubclient.client;
+
+import lombok.Value;
+import org.alexv.finnhubclient.ratelimit.RateLimiterStats;
+
+@Value
+public class TokenStats {
+
+    /**
+     * The token with all but its last characters masked.
+     */
+    String token;
+
+    int weight;
+    TokenState state;
+    int inFlight;
+    long requests;
+    long throttled;
+    long unauthorized;
+    RateLimiterStats rateLimiter;
+}
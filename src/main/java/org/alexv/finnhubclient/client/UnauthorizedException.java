@@ -0,0 +1,8 @@
+package org.alexv.finnhubclient.client;
+
+public class UnauthorizedException extends FinnhubException {
+
+    public UnauthorizedException(int statusCode, String message) {
+        super(statusCode, message);
+    }
+}
@@ -0,0 +1,247 @@
+package org.alexv.finnhubclient.crawl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.alexv.finnhubclient.model.CompanyProfile;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Append-only JSON-lines file with one {@code {"symbol", "fetchedAt", "profile"}} record per fetched profile.
+ * It is both the crawl output and its checkpoint: a record is written the moment its profile arrives, and
+ * reopening the file recovers what was fetched when. The latest record of a symbol wins.
+ */
+final class CheckpointFile implements Closeable {
+
+    private static final int SCAN_BLOCK = 8192;
+
+    private final Path path;
+    private final ObjectMapper mapper;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final int syncEvery;
+    private final ConcurrentMap<String, Long> fetchedAt;
+
+    private long records;
+    private int unsynced;
+    private boolean closed;
+
+    private CheckpointFile(Path path, ObjectMapper mapper, FileChannel channel, FileLock lock, int syncEvery,
+                           ConcurrentMap<String, Long> fetchedAt, long records) {
+        this.path = path;
+        this.mapper = mapper;
+        this.channel = channel;
+        this.lock = lock;
+        this.syncEvery = Math.max(1, syncEvery);
+        this.fetchedAt = fetchedAt;
+        this.records = records;
+    }
+
+    /**
+     * Opens the file for appending, holding an exclusive lock so that two crawls cannot interleave records.
+     */
+    static CheckpointFile open(Path path, ObjectMapper mapper, int syncEvery) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IllegalStateException(path + " is already being crawled");
+            }
+
+            // a record torn by a killed run would swallow the first record appended after it
+            channel.truncate(endOfLastRecord(channel));
+
+            ConcurrentMap<String, Long> fetchedAt = new ConcurrentHashMap<>();
+            long[] records = new long[1];
+            channel.position(0);
+            scan(new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8)),
+                    mapper, (symbol, time, line, record) -> {
+                        fetchedAt.merge(symbol, time, Math::max);
+                        records[0]++;
+                    });
+            channel.position(channel.size());
+
+            return new CheckpointFile(path, mapper, channel, lock, syncEvery, fetchedAt, records[0]);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The latest profile of every symbol in the file.
+     */
+    static Map<String, CompanyProfile> read(Path path, ObjectMapper mapper) throws IOException {
+        Map<String, CompanyProfile> profiles = new LinkedHashMap<>();
+        Map<String, Long> times = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return profiles;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            scan(reader, mapper, (symbol, time, line, record) -> {
+                if (times.getOrDefault(symbol, Long.MIN_VALUE) <= time) {
+                    times.put(symbol, time);
+                    profiles.put(symbol, mapper.treeToValue(record.get("profile"), CompanyProfile.class));
+                }
+            });
+        }
+        return profiles;
+    }
+
+    boolean fetchedAfter(String symbol, long epochSecond) {
+        Long time = fetchedAt.get(symbol);
+        return time != null && time > epochSecond;
+    }
+
+    synchronized void append(String symbol, long epochSecond, CompanyProfile profile) throws IOException {
+        if (closed) {
+            return;
+        }
+
+        ObjectNode record = mapper.createObjectNode();
+        record.put("symbol", symbol);
+        record.put("fetchedAt", epochSecond);
+        record.set("profile", mapper.valueToTree(profile));
+        byte[] json = mapper.writeValueAsBytes(record);
+
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        fetchedAt.merge(symbol, epochSecond, Math::max);
+        records++;
+
+        if (++unsynced >= syncEvery) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    /**
+     * Rewrites the file with only the latest record of each symbol, so nightly refreshes do not grow it forever.
+     */
+    synchronized void compact() throws IOException {
+        if (closed || records == fetchedAt.size()) {
+            return;
+        }
+
+        Map<String, String> latest = new LinkedHashMap<>();
+        Map<String, Long> times = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            scan(reader, mapper, (symbol, time, line, record) -> {
+                if (times.getOrDefault(symbol, Long.MIN_VALUE) <= time) {
+                    times.put(symbol, time);
+                    latest.put(symbol, line);
+                }
+            });
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (String line : latest.values()) {
+                ByteBuffer buffer = ByteBuffer.wrap((line + '\n').getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        records = latest.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            channel.force(false);
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+
+    void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long endOfLastRecord(FileChannel channel) throws IOException {
+        long end = channel.size();
+        ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK);
+
+        while (end > 0) {
+            long start = Math.max(0, end - SCAN_BLOCK);
+            block.clear().limit((int) (end - start));
+            channel.read(block, start);
+            for (int i = block.position() - 1; i >= 0; i--) {
+                if (block.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private static void scan(BufferedReader reader, ObjectMapper mapper, RecordVisitor visitor) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            JsonNode record;
+            try {
+                record = mapper.readTree(line);
+            } catch (IOException e) {
+                continue;
+            }
+            JsonNode symbol = record.get("symbol");
+            JsonNode time = record.get("fetchedAt");
+            if (symbol != null && symbol.isTextual() && time != null && time.canConvertToLong()) {
+                visitor.visit(symbol.asText(), time.asLong(), line, record);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+
+        void visit(String symbol, long epochSecond, String line, JsonNode record) throws IOException;
+    }
+}
@@ -0,0 +1,38 @@
+package org.alexv.finnhubclient.crawl;
+
+import lombok.Builder;
+import lombok.Value;
+import org.alexv.finnhubclient.ratelimit.Priority;
+
+import java.time.Duration;
+
+@Value
+@Builder
+public class CrawlConfig {
+
+    /**
+     * Profile requests in flight at once; the client's rate limiter still decides how fast they go out.
+     */
+    @Builder.Default
+    int maxConcurrency = 4;
+
+    /**
+     * Profiles fetched more recently than this are kept as they are.
+     */
+    @Builder.Default
+    Duration refreshAfter = Duration.ofDays(7);
+
+    /**
+     * Records written between fsyncs of the checkpoint file. Every record is written as soon as it arrives,
+     * so a killed process loses nothing; this only bounds the loss on a power failure.
+     */
+    @Builder.Default
+    int syncEvery = 100;
+
+    @Builder.Default
+    Priority priority = Priority.LOW;
+
+    public static CrawlConfig defaults() {
+        return CrawlConfig.builder().build();
+    }
+}
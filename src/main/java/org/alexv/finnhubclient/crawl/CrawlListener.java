@@ -0,0 +1,10 @@
+package org.alexv.finnhubclient.crawl;
+
+@FunctionalInterface
+public interface CrawlListener {
+
+    CrawlListener NONE = progress -> {
+    };
+
+    void onProgress(CrawlProgress progress);
+}
@@ -0,0 +1,32 @@
+package org.alexv.finnhubclient.crawl;
+
+import lombok.Value;
+import org.alexv.finnhubclient.model.Exchange;
+
+@Value
+public class CrawlProgress {
+
+    Exchange exchange;
+
+    /**
+     * Distinct symbols listed so far.
+     */
+    long discovered;
+
+    /**
+     * Symbols skipped because their checkpointed profile is recent enough.
+     */
+    long skipped;
+
+    long fetched;
+    long failed;
+    boolean listingComplete;
+
+    public long getRemaining() {
+        return discovered - skipped - fetched - failed;
+    }
+
+    public boolean isDone() {
+        return listingComplete && getRemaining() == 0;
+    }
+}
@@ -0,0 +1,242 @@
+package org.alexv.finnhubclient.crawl;
+
+import org.alexv.finnhubclient.client.ApiRequest;
+import org.alexv.finnhubclient.client.Endpoint;
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.client.UnauthorizedException;
+import org.alexv.finnhubclient.model.CompanyProfile;
+import org.alexv.finnhubclient.model.Exchange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fetches the company profile of every symbol listed on an exchange. Symbols are streamed from the
+ * {@link Endpoint#SYMBOL} listing straight into a bounded profile-fetch stage, so fetching starts with the
+ * first symbol and never queues more requests on the client's rate limiter than {@code maxConcurrency}.
+ * <p>
+ * Every profile is appended to {@link #checkpointPath(Exchange)} as it arrives. A crawl started after a
+ * killed or failed one skips the symbols already fetched within {@code refreshAfter}, and so does a nightly
+ * run over a fresh checkpoint. Symbols whose fetch failed are not recorded and are retried by the next run.
+ */
+public class ProfileCrawler {
+
+    private final FinnhubClient client;
+    private final Path directory;
+    private final CrawlConfig config;
+
+    public ProfileCrawler(FinnhubClient client, Path directory) {
+        this(client, directory, CrawlConfig.defaults());
+    }
+
+    public ProfileCrawler(FinnhubClient client, Path directory, CrawlConfig config) {
+        this.client = client;
+        this.directory = directory;
+        this.config = config;
+    }
+
+    public CompletableFuture<CrawlProgress> crawl(Exchange exchange) {
+        return crawl(exchange, CrawlListener.NONE);
+    }
+
+    /**
+     * Crawls the exchange, completing with the final progress once every listed symbol was fetched, skipped
+     * or failed. Only an unreadable checkpoint, a failed listing or an {@link UnauthorizedException} fails
+     * the crawl as a whole; cancelling the returned future stops it.
+     */
+    public CompletableFuture<CrawlProgress> crawl(Exchange exchange, CrawlListener listener) {
+        CheckpointFile checkpoint;
+        try {
+            Files.createDirectories(directory);
+            checkpoint = CheckpointFile.open(checkpointPath(exchange), client.getObjectMapper(), config.getSyncEvery());
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return new Crawl(exchange, checkpoint, listener).start();
+    }
+
+    public Path checkpointPath(Exchange exchange) {
+        return directory.resolve("profiles-" + exchange.code() + ".jsonl");
+    }
+
+    public Path snapshotPath(Exchange exchange) {
+        return directory.resolve("profiles-" + exchange.code() + ".snapshot");
+    }
+
+    /**
+     * The latest crawled profile of every symbol of the exchange, keyed by symbol. They come from the binary
+     * {@link #snapshotPath(Exchange)} while it matches the checkpoint; otherwise the checkpoint is parsed and
+     * the snapshot rewritten for the next call.
+     */
+    public Map<String, CompanyProfile> profiles(Exchange exchange) throws IOException {
+        Path checkpoint = checkpointPath(exchange);
+        Path snapshot = snapshotPath(exchange);
+        Optional<Map<String, CompanyProfile>> restored = ProfileSnapshot.read(snapshot, checkpoint);
+        if (restored.isPresent()) {
+            return restored.get();
+        }
+        if (!Files.exists(checkpoint)) {
+            return new LinkedHashMap<>();
+        }
+
+        long size = Files.size(checkpoint);
+        long modified = Files.getLastModifiedTime(checkpoint).toMillis();
+        Map<String, CompanyProfile> profiles = CheckpointFile.read(checkpoint, client.getObjectMapper());
+        ProfileSnapshot.write(snapshot, profiles, size, modified);
+        return profiles;
+    }
+
+    private final class Crawl {
+
+        private final Exchange exchange;
+        private final CheckpointFile checkpoint;
+        private final CrawlListener listener;
+        private final long staleBefore;
+        private final Set<String> seen = ConcurrentHashMap.newKeySet();
+        private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong discovered = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong fetched = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final CompletableFuture<CrawlProgress> result = new CompletableFuture<>();
+
+        private volatile boolean listingComplete;
+
+        private Crawl(Exchange exchange, CheckpointFile checkpoint, CrawlListener listener) {
+            this.exchange = exchange;
+            this.checkpoint = checkpoint;
+            this.listener = listener;
+            this.staleBefore = Instant.now().minus(config.getRefreshAfter()).getEpochSecond();
+        }
+
+        private CompletableFuture<CrawlProgress> start() {
+            CompletableFuture<Long> listing = client.streamSymbols(exchange, symbol -> offer(symbol.getSymbol()));
+            result.whenComplete((progress, error) -> {
+                listing.cancel(false);
+                checkpoint.closeQuietly();
+            });
+
+            listing.whenComplete((count, error) -> {
+                if (error != null) {
+                    fail(error);
+                    return;
+                }
+                listingComplete = true;
+                listener.onProgress(progress());
+                completeIfDone();
+            });
+            return result;
+        }
+
+        private void offer(String symbol) {
+            if (symbol == null || result.isDone() || !seen.add(symbol)) {
+                return;
+            }
+
+            discovered.incrementAndGet();
+            if (checkpoint.fetchedAfter(symbol, staleBefore)) {
+                skipped.incrementAndGet();
+                return;
+            }
+            pending.add(symbol);
+            drain();
+        }
+
+        private void drain() {
+            while (!pending.isEmpty() && !result.isDone()) {
+                int current = active.get();
+                if (current >= config.getMaxConcurrency()) {
+                    return;
+                }
+                if (!active.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+
+                String next = pending.poll();
+                if (next == null) {
+                    active.decrementAndGet();
+                    continue;
+                }
+                fetch(next);
+            }
+        }
+
+        private void fetch(String symbol) {
+            CompletableFuture<CompanyProfile> started;
+            try {
+                started = client.execute(ApiRequest.of(Endpoint.COMPANY_PROFILE, CompanyProfile.class, "symbol", symbol)
+                        .withPriority(config.getPriority()));
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+
+            // async so that profiles answered synchronously do not recurse into drain()
+            started.whenCompleteAsync((profile, error) -> {
+                active.decrementAndGet();
+                if (error == null) {
+                    try {
+                        checkpoint.append(symbol, Instant.now().getEpochSecond(), profile);
+                    } catch (IOException e) {
+                        fail(e);
+                        return;
+                    }
+                    fetched.incrementAndGet();
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof UnauthorizedException) {
+                        fail(cause);
+                        return;
+                    }
+                    failed.incrementAndGet();
+                }
+
+                listener.onProgress(progress());
+                drain();
+                completeIfDone();
+            });
+        }
+
+        private void completeIfDone() {
+            CrawlProgress progress = progress();
+            if (!progress.isDone() || !finished.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                checkpoint.compact();
+            } catch (IOException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            result.complete(progress);
+        }
+
+        private void fail(Throwable error) {
+            if (finished.compareAndSet(false, true)) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private CrawlProgress progress() {
+            return new CrawlProgress(exchange, discovered.get(), skipped.get(), fetched.get(), failed.get(),
+                    listingComplete);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.alexv.finnhubclient.crawl;
+
+import org.alexv.finnhubclient.model.CompanyProfile;
+import org.alexv.finnhubclient.snapshot.SnapshotFile;
+import org.alexv.finnhubclient.snapshot.SnapshotInput;
+import org.alexv.finnhubclient.snapshot.SnapshotKind;
+import org.alexv.finnhubclient.snapshot.SnapshotOutput;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Binary copy of the latest profiles in a checkpoint file, so that reading them back does not parse JSON. It
+ * records the size and modification time of the checkpoint it was made from and is ignored once the
+ * checkpoint changed.
+ */
+final class ProfileSnapshot {
+
+    private static final int MARKET_CAPITALIZATION = 1;
+    private static final int SHARE_OUTSTANDING = 2;
+
+    private ProfileSnapshot() {
+    }
+
+    static Optional<Map<String, CompanyProfile>> read(Path path, Path checkpoint) throws IOException {
+        Optional<SnapshotInput> snapshot = SnapshotFile.read(path, SnapshotKind.COMPANY_PROFILES);
+        if (snapshot.isEmpty() || !Files.exists(checkpoint)) {
+            return Optional.empty();
+        }
+
+        SnapshotInput input = snapshot.get();
+        if (input.getLong() != Files.size(checkpoint)
+                || input.getLong() != Files.getLastModifiedTime(checkpoint).toMillis()) {
+            return Optional.empty();
+        }
+
+        int count = input.getInt();
+        Map<String, CompanyProfile> profiles = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String symbol = input.getString();
+            CompanyProfile profile = new CompanyProfile();
+            profile.setCountry(input.getString());
+            profile.setCurrency(input.getString());
+            profile.setExchange(input.getString());
+            profile.setIpo(input.getString());
+            profile.setName(input.getString());
+            profile.setTicker(input.getString());
+            profile.setWeburl(input.getString());
+            profile.setLogo(input.getString());
+            profile.setFinnhubIndustry(input.getString());
+            profile.setPhone(input.getString());
+            int present = input.getInt();
+            int marketCapitalization = input.getInt();
+            double shareOutstanding = input.getDouble();
+            profile.setMarketCapitalization((present & MARKET_CAPITALIZATION) != 0 ? marketCapitalization : null);
+            profile.setShareOutstanding((present & SHARE_OUTSTANDING) != 0 ? shareOutstanding : null);
+            profiles.put(symbol, profile);
+        }
+        return Optional.of(profiles);
+    }
+
+    /**
+     * Writes the profiles read from the checkpoint, stamped with the checkpoint's size and modification time as
+     * they were before it was read.
+     */
+    static void write(Path path, Map<String, CompanyProfile> profiles, long checkpointSize, long checkpointModified)
+            throws IOException {
+        SnapshotFile.write(path, SnapshotKind.COMPANY_PROFILES, output -> {
+            output.putLong(checkpointSize).putLong(checkpointModified).putInt(profiles.size());
+            profiles.forEach((symbol, profile) -> write(output, symbol, profile));
+        });
+    }
+
+    private static void write(SnapshotOutput output, String symbol, CompanyProfile profile) {
+        Integer marketCapitalization = profile.getMarketCapitalization();
+        Double shareOutstanding = profile.getShareOutstanding();
+        int present = (marketCapitalization != null ? MARKET_CAPITALIZATION : 0)
+                | (shareOutstanding != null ? SHARE_OUTSTANDING : 0);
+
+        output.putString(symbol)
+                .putString(profile.getCountry())
+                .putString(profile.getCurrency())
+                .putString(profile.getExchange())
+                .putString(profile.getIpo())
+                .putString(profile.getName())
+                .putString(profile.getTicker())
+                .putString(profile.getWeburl())
+                .putString(profile.getLogo())
+                .putString(profile.getFinnhubIndustry())
+                .putString(profile.getPhone())
+                .putInt(present)
+                .putInt(marketCapitalization != null ? marketCapitalization : 0)
+                .putDouble(shareOutstanding != null ? shareOutstanding : 0);
+    }
+}
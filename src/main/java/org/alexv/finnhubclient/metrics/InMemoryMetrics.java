@@ -0,0 +1,108 @@
+package org.alexv.finnhubclient.metrics;
+
+import lombok.Value;
+import org.alexv.finnhubclient.client.Endpoint;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Self-contained {@link MetricsListener} that aggregates per {@link Endpoint} in memory, for applications
+ * without a metrics library or for ad-hoc diagnosis.
+ */
+public class InMemoryMetrics implements MetricsListener {
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+
+    public InMemoryMetrics() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder());
+        }
+    }
+
+    @Override
+    public void onRequestStart(Endpoint endpoint) {
+        recorders.get(endpoint).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onRequestEnd(RequestMetrics metrics) {
+        Recorder recorder = recorders.get(metrics.getEndpoint());
+
+        recorder.inFlight.decrementAndGet();
+        recorder.queue.record(metrics.getQueue());
+        recorder.connect.record(metrics.getConnect());
+        recorder.firstByte.record(metrics.getFirstByte());
+        recorder.decode.record(metrics.getDecode());
+        recorder.total.record(metrics.getTotal());
+        recorder.bytes.add(metrics.getBytes());
+        if (metrics.getStatusCode() > 0) {
+            recorder.statusCodes.computeIfAbsent(metrics.getStatusCode(), code -> new LongAdder()).increment();
+        }
+        recorder.outcomes.get(metrics.getOutcome()).increment();
+    }
+
+    public EndpointMetrics snapshot(Endpoint endpoint) {
+        Recorder recorder = recorders.get(endpoint);
+
+        Map<Integer, Long> statusCodes = new TreeMap<>();
+        recorder.statusCodes.forEach((code, counter) -> statusCodes.put(code, counter.sum()));
+        Map<RequestMetrics.Outcome, Long> outcomes = new EnumMap<>(RequestMetrics.Outcome.class);
+        recorder.outcomes.forEach((outcome, counter) -> outcomes.put(outcome, counter.sum()));
+
+        return new EndpointMetrics(endpoint, recorder.inFlight.get(), recorder.bytes.sum(), statusCodes, outcomes,
+                recorder.queue.snapshot(), recorder.connect.snapshot(), recorder.firstByte.snapshot(),
+                recorder.decode.snapshot(), recorder.total.snapshot());
+    }
+
+    public Map<Endpoint, EndpointMetrics> snapshot() {
+        Map<Endpoint, EndpointMetrics> snapshots = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            snapshots.put(endpoint, snapshot(endpoint));
+        }
+        return snapshots;
+    }
+
+    @Value
+    public static class EndpointMetrics {
+
+        Endpoint endpoint;
+        int inFlight;
+        long bytes;
+        Map<Integer, Long> statusCodes;
+        Map<RequestMetrics.Outcome, Long> outcomes;
+        LatencyHistogram.Snapshot queue;
+        LatencyHistogram.Snapshot connect;
+        LatencyHistogram.Snapshot firstByte;
+        LatencyHistogram.Snapshot decode;
+        LatencyHistogram.Snapshot total;
+
+        public long getDecodeFailures() {
+            return outcomes.getOrDefault(RequestMetrics.Outcome.DECODE_FAILURE, 0L);
+        }
+    }
+
+    private static final class Recorder {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder bytes = new LongAdder();
+        private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final Map<RequestMetrics.Outcome, LongAdder> outcomes = new EnumMap<>(RequestMetrics.Outcome.class);
+        private final LatencyHistogram queue = new LatencyHistogram();
+        private final LatencyHistogram connect = new LatencyHistogram();
+        private final LatencyHistogram firstByte = new LatencyHistogram();
+        private final LatencyHistogram decode = new LatencyHistogram();
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        private Recorder() {
+            for (RequestMetrics.Outcome outcome : RequestMetrics.Outcome.values()) {
+                outcomes.put(outcome, new LongAdder());
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.alexv.finnhubclient.metrics;
+
+import org.alexv.finnhubclient.client.Endpoint;
+
+/**
+ * Receives one start and one end event per API call. Implementations are called on the client's IO
+ * threads and must not block. With {@link #NONE} the client skips timing altogether.
+ */
+public interface MetricsListener {
+
+    MetricsListener NONE = new MetricsListener() {
+    };
+
+    /**
+     * The call was issued and is waiting for a rate-limit permit.
+     */
+    default void onRequestStart(Endpoint endpoint) {
+    }
+
+    default void onRequestEnd(RequestMetrics metrics) {
+    }
+}
@@ -0,0 +1,96 @@
+package org.alexv.finnhubclient.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.alexv.finnhubclient.client.Endpoint;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes client metrics to a Micrometer {@link MeterRegistry}. Micrometer is an optional dependency;
+ * this class is only usable when it is on the classpath. Meters are tagged by {@code endpoint}, and
+ * phase timers additionally by {@code phase}.
+ */
+public class MicrometerMetricsListener implements MetricsListener {
+
+    private static final String PREFIX = "finnhub.client.";
+
+    private final MeterRegistry registry;
+    private final Map<Endpoint, Meters> meters = new EnumMap<>(Endpoint.class);
+
+    public MicrometerMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+        for (Endpoint endpoint : Endpoint.values()) {
+            meters.put(endpoint, new Meters(endpoint));
+        }
+    }
+
+    @Override
+    public void onRequestStart(Endpoint endpoint) {
+        meters.get(endpoint).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onRequestEnd(RequestMetrics metrics) {
+        Meters endpointMeters = meters.get(metrics.getEndpoint());
+
+        endpointMeters.inFlight.decrementAndGet();
+        record(endpointMeters.queue, metrics.getQueue());
+        record(endpointMeters.connect, metrics.getConnect());
+        record(endpointMeters.firstByte, metrics.getFirstByte());
+        record(endpointMeters.decode, metrics.getDecode());
+        record(endpointMeters.total, metrics.getTotal());
+        endpointMeters.bytes.increment(metrics.getBytes());
+
+        if (metrics.getStatusCode() > 0) {
+            registry.counter(PREFIX + "responses", "endpoint", metrics.getEndpoint().name(),
+                    "status", Integer.toString(metrics.getStatusCode())).increment();
+        }
+        if (metrics.getOutcome() != RequestMetrics.Outcome.SUCCESS) {
+            registry.counter(PREFIX + "errors", "endpoint", metrics.getEndpoint().name(),
+                    "outcome", metrics.getOutcome().name()).increment();
+        }
+    }
+
+    private static void record(Timer timer, Duration duration) {
+        if (duration != null) {
+            timer.record(duration);
+        }
+    }
+
+    private final class Meters {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter bytes;
+        private final Timer queue;
+        private final Timer connect;
+        private final Timer firstByte;
+        private final Timer decode;
+        private final Timer total;
+
+        private Meters(Endpoint endpoint) {
+            String tag = endpoint.name();
+
+            registry.gauge(PREFIX + "inflight", Tags.of("endpoint", tag), inFlight);
+            this.bytes = Counter.builder(PREFIX + "bytes").tag("endpoint", tag).baseUnit("bytes").register(registry);
+            this.queue = phase(tag, "queue");
+            this.connect = phase(tag, "connect");
+            this.firstByte = phase(tag, "first_byte");
+            this.decode = phase(tag, "decode");
+            this.total = phase(tag, "total");
+        }
+
+        private Timer phase(String endpoint, String phase) {
+            return Timer.builder(PREFIX + "request")
+                    .tag("endpoint", endpoint)
+                    .tag("phase", phase)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
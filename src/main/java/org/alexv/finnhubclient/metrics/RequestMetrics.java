@@ -0,0 +1,58 @@
+package org.alexv.finnhubclient.metrics;
+
+import lombok.Value;
+import org.alexv.finnhubclient.client.Endpoint;
+
+import java.time.Duration;
+
+/**
+ * Timings of one API call, phase by phase. A phase the call never reached is {@code null}; when the call
+ * was retried the phases describe the last attempt and {@code total} covers all of them.
+ */
+@Value
+public class RequestMetrics {
+
+    Endpoint endpoint;
+    Outcome outcome;
+
+    /**
+     * Last HTTP status received, 0 when no response arrived.
+     */
+    int statusCode;
+
+    int attempts;
+    long bytes;
+
+    /**
+     * Waiting for a rate-limit permit.
+     */
+    Duration queue;
+
+    /**
+     * From handing the request to the IO reactor until a connection was ready: pool lease, connect and TLS.
+     * Only measured when the HTTP client was built with {@code FinnhubClient.instrument}.
+     */
+    Duration connect;
+
+    /**
+     * From the connection being ready (or, without connect timing, from the permit) until the response head arrived.
+     */
+    Duration firstByte;
+
+    /**
+     * Reading and decoding the response body.
+     */
+    Duration decode;
+
+    Duration total;
+    Throwable error;
+
+    public enum Outcome {
+        SUCCESS,
+        HTTP_ERROR,
+        DECODE_FAILURE,
+        DEADLINE_EXCEEDED,
+        FAILED,
+        CANCELLED
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.alexv.finnhubclient.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Column-oriented candle data backed by primitive {@code double}/{@code long} columns ordered by time.
+ * Slices share the columns of the series they were taken from, so slicing never copies.
+ */
+@JsonDeserialize(using = CandleSeriesDeserializer.class)
+public final class CandleSeries {
+
+	public static final String STATUS_OK = "ok";
+	public static final String STATUS_NO_DATA = "no_data";
+
+	private static final int RECORD_BYTES = 6 * Long.BYTES;
+	private static final CandleSeries EMPTY = new CandleSeries(STATUS_NO_DATA, new long[0], new double[0],
+			new double[0], new double[0], new double[0], new long[0]);
+
+	private final String status;
+	private final LongBuffer time;
+	private final DoubleBuffer open;
+	private final DoubleBuffer high;
+	private final DoubleBuffer low;
+	private final DoubleBuffer close;
+	private final LongBuffer volume;
+	private final boolean offHeap;
+
+	public CandleSeries(String status, long[] time, double[] open, double[] high, double[] low, double[] close,
+			long[] volume) {
+		this(status, LongBuffer.wrap(time), DoubleBuffer.wrap(open), DoubleBuffer.wrap(high), DoubleBuffer.wrap(low),
+				DoubleBuffer.wrap(close), LongBuffer.wrap(volume), false);
+
+		int size = time.length;
+		if (open.length != size || high.length != size || low.length != size || close.length != size
+				|| volume.length != size) {
+			throw new IllegalArgumentException("All candle columns must have the same length");
+		}
+	}
+
+	private CandleSeries(String status, LongBuffer time, DoubleBuffer open, DoubleBuffer high, DoubleBuffer low,
+			DoubleBuffer close, LongBuffer volume, boolean offHeap) {
+		this.status = status;
+		this.time = time;
+		this.open = open;
+		this.high = high;
+		this.low = low;
+		this.close = close;
+		this.volume = volume;
+		this.offHeap = offHeap;
+	}
+
+	public static CandleSeries empty() {
+		return EMPTY;
+	}
+
+	public static CandleSeries from(Candle candle) {
+		if (candle.getT() == null) {
+			return new CandleSeries(candle.getS(), new long[0], new double[0], new double[0], new double[0],
+					new double[0], new long[0]);
+		}
+
+		int size = candle.getT().length;
+		Builder builder = builder(size).status(candle.getS());
+		for (int i = 0; i < size; i++) {
+			builder.add(candle.getT()[i], value(candle.getO(), i), value(candle.getH(), i), value(candle.getL(), i),
+					value(candle.getC(), i), candle.getV() == null || candle.getV()[i] == null ? 0 : candle.getV()[i]);
+		}
+		return builder.build();
+	}
+
+	public static Builder builder() {
+		return new Builder(64);
+	}
+
+	public static Builder builder(int expectedSize) {
+		return new Builder(expectedSize);
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+
+	public int size() {
+		return time.limit();
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public long time(int index) {
+		return time.get(index);
+	}
+
+	public double open(int index) {
+		return open.get(index);
+	}
+
+	public double high(int index) {
+		return high.get(index);
+	}
+
+	public double low(int index) {
+		return low.get(index);
+	}
+
+	public double close(int index) {
+		return close.get(index);
+	}
+
+	public long volume(int index) {
+		return volume.get(index);
+	}
+
+	public long firstTime() {
+		return time.get(0);
+	}
+
+	public long lastTime() {
+		return time.get(size() - 1);
+	}
+
+	public LongBuffer timeColumn() {
+		return time.asReadOnlyBuffer();
+	}
+
+	public DoubleBuffer openColumn() {
+		return open.asReadOnlyBuffer();
+	}
+
+	public DoubleBuffer highColumn() {
+		return high.asReadOnlyBuffer();
+	}
+
+	public DoubleBuffer lowColumn() {
+		return low.asReadOnlyBuffer();
+	}
+
+	public DoubleBuffer closeColumn() {
+		return close.asReadOnlyBuffer();
+	}
+
+	public LongBuffer volumeColumn() {
+		return volume.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Index of the first candle at or after {@code epochSecond}, or {@link #size()} if there is none.
+	 */
+	public int indexOf(long epochSecond) {
+		int lowIndex = 0;
+		int highIndex = size();
+
+		while (lowIndex < highIndex) {
+			int mid = (lowIndex + highIndex) >>> 1;
+			if (time.get(mid) < epochSecond) {
+				lowIndex = mid + 1;
+			} else {
+				highIndex = mid;
+			}
+		}
+		return lowIndex;
+	}
+
+	public CandleSeries slice(long fromEpoch, long toEpoch) {
+		int from = indexOf(fromEpoch);
+		int to = toEpoch == Long.MAX_VALUE ? size() : indexOf(toEpoch + 1);
+		return subSeries(from, Math.max(from, to));
+	}
+
+	public CandleSeries subSeries(int fromIndex, int toIndex) {
+		int length = toIndex - fromIndex;
+
+		return new CandleSeries(status, time.slice(fromIndex, length), open.slice(fromIndex, length),
+				high.slice(fromIndex, length), low.slice(fromIndex, length), close.slice(fromIndex, length),
+				volume.slice(fromIndex, length), offHeap);
+	}
+
+	public CandleSeries toOffHeap() {
+		if (offHeap) {
+			return this;
+		}
+
+		int size = size();
+		ByteBuffer columns = ByteBuffer.allocateDirect(Math.max(1, size) * RECORD_BYTES).order(ByteOrder.nativeOrder());
+
+		LongBuffer offHeapTime = column(columns, 0, size).asLongBuffer();
+		DoubleBuffer offHeapOpen = column(columns, 1, size).asDoubleBuffer();
+		DoubleBuffer offHeapHigh = column(columns, 2, size).asDoubleBuffer();
+		DoubleBuffer offHeapLow = column(columns, 3, size).asDoubleBuffer();
+		DoubleBuffer offHeapClose = column(columns, 4, size).asDoubleBuffer();
+		LongBuffer offHeapVolume = column(columns, 5, size).asLongBuffer();
+
+		offHeapTime.put(0, time, 0, size);
+		offHeapOpen.put(0, open, 0, size);
+		offHeapHigh.put(0, high, 0, size);
+		offHeapLow.put(0, low, 0, size);
+		offHeapClose.put(0, close, 0, size);
+		offHeapVolume.put(0, volume, 0, size);
+
+		return new CandleSeries(status, offHeapTime, offHeapOpen, offHeapHigh, offHeapLow, offHeapClose, offHeapVolume,
+				true);
+	}
+
+	public Candle toCandle() {
+		int size = size();
+		Candle candle = new Candle();
+		Double[] o = new Double[size];
+		Double[] h = new Double[size];
+		Double[] l = new Double[size];
+		Double[] c = new Double[size];
+		Long[] t = new Long[size];
+		Long[] v = new Long[size];
+
+		for (int i = 0; i < size; i++) {
+			o[i] = open.get(i);
+			h[i] = high.get(i);
+			l[i] = low.get(i);
+			c[i] = close.get(i);
+			t[i] = time.get(i);
+			v[i] = volume.get(i);
+		}
+
+		candle.setS(status);
+		if (size > 0 || STATUS_OK.equals(status)) {
+			candle.setO(o);
+			candle.setH(h);
+			candle.setL(l);
+			candle.setC(c);
+			candle.setT(t);
+			candle.setV(v);
+		}
+		return candle;
+	}
+
+	@Override
+	public String toString() {
+		return "CandleSeries(status=" + status + ", size=" + size()
+				+ (isEmpty() ? "" : ", from=" + firstTime() + ", to=" + lastTime()) + (offHeap ? ", offHeap" : "") + ")";
+	}
+
+	private static ByteBuffer column(ByteBuffer columns, int index, int size) {
+		return columns.slice(index * size * Long.BYTES, size * Long.BYTES).order(ByteOrder.nativeOrder());
+	}
+
+	private static double value(Double[] column, int index) {
+		return column == null || column[index] == null ? Double.NaN : column[index];
+	}
+
+	/**
+	 * Accumulates candles row by row into growable primitive columns.
+	 */
+	public static final class Builder {
+
+		private String status = STATUS_OK;
+		private long[] time;
+		private double[] open;
+		private double[] high;
+		private double[] low;
+		private double[] close;
+		private long[] volume;
+		private int size;
+
+		private Builder(int expectedSize) {
+			int capacity = Math.max(1, expectedSize);
+			time = new long[capacity];
+			open = new double[capacity];
+			high = new double[capacity];
+			low = new double[capacity];
+			close = new double[capacity];
+			volume = new long[capacity];
+		}
+
+		public Builder status(String status) {
+			this.status = status;
+			return this;
+		}
+
+		public Builder add(long time, double open, double high, double low, double close, long volume) {
+			if (size == this.time.length) {
+				grow();
+			}
+
+			this.time[size] = time;
+			this.open[size] = open;
+			this.high[size] = high;
+			this.low[size] = low;
+			this.close[size] = close;
+			this.volume[size] = volume;
+			size++;
+			return this;
+		}
+
+		public Builder addAll(CandleSeries series) {
+			for (int i = 0; i < series.size(); i++) {
+				add(series.time(i), series.open(i), series.high(i), series.low(i), series.close(i), series.volume(i));
+			}
+			return this;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public CandleSeries build() {
+			String builtStatus = size == 0 && STATUS_OK.equals(status) ? STATUS_NO_DATA : status;
+
+			if (size == time.length) {
+				return new CandleSeries(builtStatus, time, open, high, low, close, volume);
+			}
+			return new CandleSeries(builtStatus, Arrays.copyOf(time, size), Arrays.copyOf(open, size),
+					Arrays.copyOf(high, size), Arrays.copyOf(low, size), Arrays.copyOf(close, size),
+					Arrays.copyOf(volume, size));
+		}
+
+		private void grow() {
+			int capacity = time.length * 2;
+			time = Arrays.copyOf(time, capacity);
+			open = Arrays.copyOf(open, capacity);
+			high = Arrays.copyOf(high, capacity);
+			low = Arrays.copyOf(low, capacity);
+			close = Arrays.copyOf(close, capacity);
+			volume = Arrays.copyOf(volume, capacity);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.alexv.finnhubclient.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads the {@code /stock/candle} payload straight into primitive columns, without boxing any value.
+ */
+public class CandleSeriesDeserializer extends StdDeserializer<CandleSeries> {
+
+	public CandleSeriesDeserializer() {
+		super(CandleSeries.class);
+	}
+
+	@Override
+	public CandleSeries deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (!parser.isExpectedStartObjectToken()) {
+			return (CandleSeries) context.handleUnexpectedToken(CandleSeries.class, parser);
+		}
+
+		String status = null;
+		long[] time = null;
+		double[] open = null;
+		double[] high = null;
+		double[] low = null;
+		double[] close = null;
+		long[] volume = null;
+
+		String field;
+		while ((field = parser.nextFieldName()) != null) {
+			JsonToken token = parser.nextToken();
+
+			switch (field) {
+				case "s" -> status = parser.getValueAsString();
+				case "t" -> time = readLongs(parser, context);
+				case "o" -> open = readDoubles(parser, context);
+				case "h" -> high = readDoubles(parser, context);
+				case "l" -> low = readDoubles(parser, context);
+				case "c" -> close = readDoubles(parser, context);
+				case "v" -> volume = readLongs(parser, context);
+				default -> {
+					if (token.isStructStart()) {
+						parser.skipChildren();
+					}
+				}
+			}
+		}
+
+		if (time == null || time.length == 0) {
+			return new CandleSeries(status == null ? CandleSeries.STATUS_NO_DATA : status, new long[0], new double[0],
+					new double[0], new double[0], new double[0], new long[0]);
+		}
+
+		int size = time.length;
+		return new CandleSeries(status == null ? CandleSeries.STATUS_OK : status, time, fit(open, size),
+				fit(high, size), fit(low, size), fit(close, size), fit(volume, size));
+	}
+
+	private static double[] readDoubles(JsonParser parser, DeserializationContext context) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (!parser.isExpectedStartArrayToken()) {
+			return (double[]) context.handleUnexpectedToken(double[].class, parser);
+		}
+
+		double[] values = new double[256];
+		int size = 0;
+		JsonToken token;
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = token == JsonToken.VALUE_NULL ? Double.NaN : parser.getValueAsDouble();
+		}
+		return size == values.length ? values : Arrays.copyOf(values, size);
+	}
+
+	private static long[] readLongs(JsonParser parser, DeserializationContext context) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (!parser.isExpectedStartArrayToken()) {
+			return (long[]) context.handleUnexpectedToken(long[].class, parser);
+		}
+
+		long[] values = new long[256];
+		int size = 0;
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = parser.getValueAsLong();
+		}
+		return size == values.length ? values : Arrays.copyOf(values, size);
+	}
+
+	private static long[] fit(long[] column, int size) {
+		if (column == null) {
+			return new long[size];
+		}
+		return column.length == size ? column : Arrays.copyOf(column, size);
+	}
+
+	private static double[] fit(double[] column, int size) {
+		if (column == null) {
+			double[] missing = new double[size];
+			Arrays.fill(missing, Double.NaN);
+			return missing;
+		}
+		if (column.length == size) {
+			return column;
+		}
+
+		double[] resized = Arrays.copyOf(column, size);
+		if (column.length < size) {
+			Arrays.fill(resized, column.length, size, Double.NaN);
+		}
+		return resized;
+	}
+}
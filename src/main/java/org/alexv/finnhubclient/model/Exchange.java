@@ -75,4 +75,13 @@ public enum Exchange {
     public String code() {
         return code;
     }
+
+    public static Exchange fromCode(String code) {
+        for (Exchange exchange : values()) {
+            if (exchange.code.equalsIgnoreCase(code)) {
+                return exchange;
+            }
+        }
+        throw new IllegalArgumentException("Unknown exchange: " + code);
+    }
 }
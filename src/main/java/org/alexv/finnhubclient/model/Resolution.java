@@ -0,0 +1,44 @@
+package org.alexv.finnhubclient.model;
+
+import java.time.Duration;
+
+public enum Resolution {
+
+    ONE_MINUTE("1", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5", Duration.ofMinutes(5)),
+    FIFTEEN_MINUTES("15", Duration.ofMinutes(15)),
+    THIRTY_MINUTES("30", Duration.ofMinutes(30)),
+    SIXTY_MINUTES("60", Duration.ofHours(1)),
+    DAY("D", Duration.ofDays(1)),
+    WEEK("W", Duration.ofDays(7)),
+    MONTH("M", Duration.ofDays(30));
+
+    private final String code;
+    private final Duration duration;
+
+    Resolution(String code, Duration duration) {
+        this.code = code;
+        this.duration = duration;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    public boolean isIntraday() {
+        return duration.compareTo(Duration.ofDays(1)) < 0;
+    }
+
+    public static Resolution fromCode(String code) {
+        for (Resolution resolution : values()) {
+            if (resolution.code.equalsIgnoreCase(code)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resolution: " + code);
+    }
+}
@@ -0,0 +1,259 @@
+package org.alexv.finnhubclient.poll;
+
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.client.FinnhubException;
+import org.alexv.finnhubclient.client.RateLimitExceededException;
+import org.alexv.finnhubclient.model.Quote;
+import org.alexv.finnhubclient.ratelimit.Priority;
+import org.alexv.finnhubclient.ratelimit.RateLimiterConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One polling loop shared by every {@link QuoteSubscription} of a client. It spends a fixed number of
+ * requests per second and, on each tick, polls the symbol that is most overdue relative to its own
+ * interval. A symbol's interval halves when its quote moved and grows when it did not, so volatile
+ * symbols get the larger share of the budget. Symbols shared by several subscriptions are polled once.
+ * A failed poll backs the symbol off like a quiet one; a client error other than 429, a rejected token
+ * included, fails every subscription of the symbol instead.
+ */
+public class QuotePoller implements AutoCloseable {
+
+    /**
+     * Fraction of the client's rate limit given to polling; the rest stays available for direct calls.
+     */
+    public static final double POLLING_SHARE = 0.5;
+
+    private static final double UNLIMITED_BUDGET = 10;
+
+    private final FinnhubClient client;
+    private final long tickNanos;
+    private final Map<String, Tracked> tracked = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+    private long polls;
+    private long changes;
+
+    public QuotePoller(FinnhubClient client, double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive: " + requestsPerSecond);
+        }
+        this.client = client;
+        this.tickNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    }
+
+    public static double budget(RateLimiterConfig config) {
+        double perSecond = config.getRequestsPerSecond() > 0 ? config.getRequestsPerSecond() : Double.POSITIVE_INFINITY;
+        double perMinute = config.getRequestsPerMinute() > 0 ? config.getRequestsPerMinute() / 60.0 : Double.POSITIVE_INFINITY;
+        double limit = Math.min(perSecond, perMinute);
+
+        return Double.isInfinite(limit) ? UNLIMITED_BUDGET : limit * POLLING_SHARE;
+    }
+
+    public synchronized QuoteSubscription subscribe(Set<String> symbols, Duration target) {
+        if (closed) {
+            throw new IllegalStateException("Quote poller is closed");
+        }
+
+        QuoteSubscription subscription = new QuoteSubscription(this, symbols, target);
+        long now = System.nanoTime();
+        for (String symbol : subscription.getSymbols()) {
+            Tracked symbolState = tracked.computeIfAbsent(symbol, key -> new Tracked(key, target.toNanos(), now));
+            symbolState.add(subscription);
+            // joining a tracked symbol: its next update may be hours away, so start from the last known quote
+            if (symbolState.last != null) {
+                subscription.publish(new QuoteUpdate(symbol, null, symbolState.last));
+            }
+        }
+
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "finnhub-quote-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::tick, 0, tickNanos, TimeUnit.NANOSECONDS);
+        }
+        return subscription;
+    }
+
+    public synchronized long getPolls() {
+        return polls;
+    }
+
+    public synchronized long getChanges() {
+        return changes;
+    }
+
+    public synchronized int getTrackedSymbols() {
+        return tracked.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        tracked.clear();
+    }
+
+    synchronized void remove(QuoteSubscription subscription) {
+        for (String symbol : subscription.getSymbols()) {
+            Tracked symbolState = tracked.get(symbol);
+            if (symbolState != null && symbolState.remove(subscription)) {
+                tracked.remove(symbol);
+            }
+        }
+    }
+
+    private void tick() {
+        Tracked next = null;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            double mostOverdue = 1;
+
+            for (Tracked candidate : tracked.values()) {
+                double overdue = candidate.overdue(now);
+                if (!candidate.inFlight && overdue >= mostOverdue) {
+                    mostOverdue = overdue;
+                    next = candidate;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            next.inFlight = true;
+            next.lastPolledAt = now;
+            polls++;
+        }
+
+        Tracked polled = next;
+        try {
+            client.getQuote(polled.symbol, Priority.NORMAL).whenComplete((quote, error) -> completed(polled, quote, error));
+        } catch (RuntimeException e) {
+            // an exception escaping tick() would cancel the periodic task
+            completed(polled, null, e);
+        }
+    }
+
+    private void completed(Tracked polled, Quote quote, Throwable error) {
+        Throwable failure = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        List<QuoteSubscription> recipients;
+        QuoteUpdate update = null;
+
+        synchronized (this) {
+            polled.inFlight = false;
+            if (tracked.get(polled.symbol) != polled) {
+                return;
+            }
+
+            if (quote == null) {
+                if (!isPermanent(failure)) {
+                    polled.quiet();
+                    return;
+                }
+                recipients = new ArrayList<>(polled.subscriptions);
+            } else {
+                Quote previous = polled.last;
+                if (previous != null && Objects.equals(previous.getCurrentPrice(), quote.getCurrentPrice())
+                        && Objects.equals(previous.getChange(), quote.getChange())) {
+                    polled.quiet();
+                    return;
+                }
+
+                if (previous != null) {
+                    polled.moved();
+                }
+                polled.last = quote;
+                changes++;
+                update = new QuoteUpdate(polled.symbol, previous, quote);
+                recipients = new ArrayList<>(polled.subscriptions);
+            }
+        }
+
+        for (QuoteSubscription subscription : recipients) {
+            if (update != null) {
+                subscription.publish(update);
+            } else {
+                subscription.fail(failure);
+            }
+        }
+    }
+
+    /**
+     * Whether polling again cannot succeed: the request itself was refused, not throttled.
+     */
+    private static boolean isPermanent(Throwable error) {
+        return error instanceof FinnhubException finnhubError && !(error instanceof RateLimitExceededException)
+                && finnhubError.getStatusCode() >= 400 && finnhubError.getStatusCode() < 500;
+    }
+
+    private static final class Tracked {
+
+        private final String symbol;
+        private final List<QuoteSubscription> subscriptions = new ArrayList<>();
+        private long targetNanos;
+        private long intervalNanos;
+        private long lastPolledAt;
+        private boolean inFlight;
+        private Quote last;
+
+        private Tracked(String symbol, long targetNanos, long now) {
+            this.symbol = symbol;
+            this.targetNanos = targetNanos;
+            this.intervalNanos = targetNanos;
+            // ranks new symbols ahead of everything that is merely due
+            this.lastPolledAt = now - 4 * targetNanos;
+        }
+
+        private void add(QuoteSubscription subscription) {
+            subscriptions.add(subscription);
+            retarget();
+        }
+
+        /**
+         * Returns whether no subscription is left.
+         */
+        private boolean remove(QuoteSubscription subscription) {
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty()) {
+                return true;
+            }
+            retarget();
+            return false;
+        }
+
+        private double overdue(long now) {
+            return (double) (now - lastPolledAt) / intervalNanos;
+        }
+
+        private void moved() {
+            intervalNanos = Math.max(targetNanos / 4, intervalNanos / 2);
+        }
+
+        private void quiet() {
+            intervalNanos = Math.min(targetNanos * 8, intervalNanos + intervalNanos / 2);
+        }
+
+        private void retarget() {
+            targetNanos = Long.MAX_VALUE;
+            for (QuoteSubscription subscription : subscriptions) {
+                targetNanos = Math.min(targetNanos, Math.max(1, subscription.getTarget().toNanos()));
+            }
+            intervalNanos = Math.max(targetNanos / 4, Math.min(targetNanos * 8, intervalNanos));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.alexv.finnhubclient.poll;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Publishes a {@link QuoteUpdate} whenever the current price or change of one of its symbols moves.
+ * Slow subscribers lose updates rather than hold up the shared poller. The first update of each symbol is its
+ * last known quote, with no previous one; updates published before the first subscriber arrived are held for
+ * it, the latest per symbol. A symbol failing for good, such as with a revoked token or an unknown symbol,
+ * ends the subscription with {@code onError}.
+ */
+public class QuoteSubscription implements Flow.Publisher<QuoteUpdate>, AutoCloseable {
+
+    private final QuotePoller poller;
+    private final Set<String> symbols;
+    private final Duration target;
+    private final SubmissionPublisher<QuoteUpdate> publisher = new SubmissionPublisher<>();
+    private final Map<String, QuoteUpdate> unseen = new LinkedHashMap<>();
+
+    QuoteSubscription(QuotePoller poller, Set<String> symbols, Duration target) {
+        this.poller = poller;
+        this.symbols = Set.copyOf(symbols);
+        this.target = target;
+    }
+
+    public Set<String> getSymbols() {
+        return symbols;
+    }
+
+    public Duration getTarget() {
+        return target;
+    }
+
+    @Override
+    public synchronized void subscribe(Flow.Subscriber<? super QuoteUpdate> subscriber) {
+        publisher.subscribe(subscriber);
+        for (QuoteUpdate update : unseen.values()) {
+            offer(update);
+        }
+        unseen.clear();
+    }
+
+    @Override
+    public void close() {
+        poller.remove(this);
+        publisher.close();
+    }
+
+    synchronized void publish(QuoteUpdate update) {
+        if (publisher.isClosed()) {
+            return;
+        }
+        if (publisher.hasSubscribers()) {
+            offer(update);
+            return;
+        }
+
+        QuoteUpdate held = unseen.get(update.getSymbol());
+        unseen.put(update.getSymbol(), held == null ? update
+                : new QuoteUpdate(update.getSymbol(), held.getPrevious(), update.getCurrent()));
+    }
+
+    /**
+     * Ends the subscription after a failure polling one of its symbols that retrying will not fix.
+     */
+    void fail(Throwable error) {
+        poller.remove(this);
+        publisher.closeExceptionally(error);
+    }
+
+    private void offer(QuoteUpdate update) {
+        publisher.offer(update, (subscriber, dropped) -> false);
+    }
+}
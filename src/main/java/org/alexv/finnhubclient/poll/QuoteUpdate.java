@@ -0,0 +1,17 @@
+package org.alexv.finnhubclient.poll;
+
+import lombok.Value;
+import org.alexv.finnhubclient.model.Quote;
+
+@Value
+public class QuoteUpdate {
+
+    String symbol;
+
+    /**
+     * The last quote that was emitted for the symbol, {@code null} for the first one.
+     */
+    Quote previous;
+
+    Quote current;
+}
@@ -0,0 +1,16 @@
+package org.alexv.finnhubclient.ratelimit;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class Permit {
+
+    Priority priority;
+    long waitNanos;
+
+    public Duration getWaitTime() {
+        return Duration.ofNanos(waitNanos);
+    }
+}
@@ -0,0 +1,9 @@
+package org.alexv.finnhubclient.ratelimit;
+
+public enum Priority {
+
+    HIGH,
+    NORMAL,
+    LOW
+
+}
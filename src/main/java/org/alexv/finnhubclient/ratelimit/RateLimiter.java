@@ -0,0 +1,339 @@
+package org.alexv.finnhubclient.ratelimit;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket limiter shared by every request of a client. Waiting requests are
+ * granted by {@link Priority} first and arrival order second.
+ */
+public class RateLimiter implements AutoCloseable {
+
+    public static final String RETRY_AFTER = "Retry-After";
+    public static final String RATE_LIMIT = "X-Ratelimit-Limit";
+    public static final String RATE_LIMIT_REMAINING = "X-Ratelimit-Remaining";
+    public static final String RATE_LIMIT_RESET = "X-Ratelimit-Reset";
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final RateLimiterConfig config;
+    private final TokenBucket secondBucket;
+    private final TokenBucket minuteBucket;
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private ScheduledExecutorService scheduler;
+    private long scheduledAt = Long.MAX_VALUE;
+    private long pausedUntil;
+    private long sequence;
+    private boolean closed;
+
+    private long granted;
+    private long throttled;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public RateLimiter(RateLimiterConfig config) {
+        long now = System.nanoTime();
+
+        this.config = config;
+        this.pausedUntil = now;
+        this.secondBucket = config.getRequestsPerSecond() > 0
+                ? new TokenBucket(config.getRequestsPerSecond(), SECOND, now) : null;
+        this.minuteBucket = config.getRequestsPerMinute() > 0
+                ? new TokenBucket(config.getRequestsPerMinute(), MINUTE, now) : null;
+    }
+
+    public static RateLimiter unlimited() {
+        return new RateLimiter(RateLimiterConfig.builder()
+                .requestsPerSecond(0)
+                .requestsPerMinute(0)
+                .build());
+    }
+
+    public RateLimiterConfig getConfig() {
+        return config;
+    }
+
+    public CompletableFuture<Permit> acquire(Priority priority) {
+        Waiter waiter = new Waiter(priority, System.nanoTime());
+        List<Waiter> ready;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Rate limiter is closed"));
+            }
+            waiter.sequence = sequence++;
+            queue.add(waiter);
+            ready = drainReady();
+        } finally {
+            lock.unlock();
+        }
+
+        grant(ready);
+        return waiter.future;
+    }
+
+    /**
+     * Grants a permit only when one is available right away and nobody is queued, for optional traffic such as
+     * hedged requests that must never delay regular calls.
+     */
+    public Optional<Permit> tryAcquire(Priority priority) {
+        lock.lock();
+        try {
+            if (closed || !queue.isEmpty() || delayNanos(System.nanoTime()) > 0) {
+                return Optional.empty();
+            }
+            consume();
+            granted++;
+        } finally {
+            lock.unlock();
+        }
+
+        Permit permit = new Permit(priority, 0);
+        config.getPermitListener().accept(permit);
+        return Optional.of(permit);
+    }
+
+    public void onResponse(HttpResponse response) {
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            if (config.isAdaptToHeaders() && minuteBucket != null) {
+                Long limit = longHeader(response, RATE_LIMIT);
+                Long remaining = longHeader(response, RATE_LIMIT_REMAINING);
+
+                if (limit != null) {
+                    minuteBucket.resize(limit.intValue());
+                }
+                if (remaining != null) {
+                    minuteBucket.nanosUntilAvailable(now);
+                    minuteBucket.limitTo(remaining);
+                    if (remaining <= 0) {
+                        pause(now + resetNanos(response, config.getDefaultRetryAfter()));
+                    }
+                }
+            }
+            if (response.getCode() == HttpStatus.SC_TOO_MANY_REQUESTS) {
+                throttled++;
+                pause(now + retryAfter(response).toNanos());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Duration retryAfter(HttpResponse response) {
+        Header header = response.getFirstHeader(RETRY_AFTER);
+
+        if (header != null) {
+            String value = header.getValue().trim();
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+            } catch (NumberFormatException ignored) {
+                try {
+                    ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    Duration delay = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                    return delay.isNegative() ? Duration.ZERO : delay;
+                } catch (DateTimeParseException alsoIgnored) {
+                    // fall through to the rate-limit reset header
+                }
+            }
+        }
+
+        return Duration.ofNanos(resetNanos(response, config.getDefaultRetryAfter()));
+    }
+
+    public RateLimiterStats getStats() {
+        lock.lock();
+        try {
+            return new RateLimiterStats(granted, throttled, queue.size(),
+                    Duration.ofNanos(totalWaitNanos), Duration.ofNanos(maxWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Waiter> pending;
+
+        lock.lock();
+        try {
+            closed = true;
+            pending = new ArrayList<>(queue);
+            queue.clear();
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Waiter waiter : pending) {
+            waiter.future.completeExceptionally(new IllegalStateException("Rate limiter is closed"));
+        }
+    }
+
+    private void drain() {
+        List<Waiter> ready;
+
+        lock.lock();
+        try {
+            scheduledAt = Long.MAX_VALUE;
+            ready = drainReady();
+        } finally {
+            lock.unlock();
+        }
+
+        grant(ready);
+    }
+
+    private List<Waiter> drainReady() {
+        List<Waiter> ready = new ArrayList<>();
+
+        while (!queue.isEmpty()) {
+            if (queue.peek().future.isDone()) {
+                queue.poll();
+                continue;
+            }
+
+            long now = System.nanoTime();
+            long delay = delayNanos(now);
+            if (delay > 0) {
+                schedule(now, delay);
+                break;
+            }
+
+            Waiter waiter = queue.poll();
+            consume();
+
+            long waited = now - waiter.enqueuedAt;
+            waiter.waitNanos = waited;
+            granted++;
+            totalWaitNanos += waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+            ready.add(waiter);
+        }
+
+        return ready;
+    }
+
+    private void consume() {
+        if (secondBucket != null) {
+            secondBucket.consume();
+        }
+        if (minuteBucket != null) {
+            minuteBucket.consume();
+        }
+    }
+
+    private void grant(List<Waiter> ready) {
+        for (Waiter waiter : ready) {
+            Permit permit = new Permit(waiter.priority, waiter.waitNanos);
+            config.getPermitListener().accept(permit);
+            waiter.future.complete(permit);
+        }
+    }
+
+    private long delayNanos(long now) {
+        long delay = pausedUntil - now;
+
+        if (secondBucket != null) {
+            delay = Math.max(delay, secondBucket.nanosUntilAvailable(now));
+        }
+        if (minuteBucket != null) {
+            delay = Math.max(delay, minuteBucket.nanosUntilAvailable(now));
+        }
+
+        return delay;
+    }
+
+    private void schedule(long now, long delay) {
+        long at = now + delay;
+
+        if (scheduledAt > now && scheduledAt <= at) {
+            return;
+        }
+        scheduledAt = at;
+        scheduler().schedule(this::drain, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "finnhub-rate-limiter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private void pause(long until) {
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+    }
+
+    private static long resetNanos(HttpResponse response, Duration fallback) {
+        Long reset = longHeader(response, RATE_LIMIT_RESET);
+
+        if (reset == null) {
+            return fallback.toNanos();
+        }
+        long millis = TimeUnit.SECONDS.toMillis(reset) - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    private static Long longHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.getValue().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class Waiter implements Comparable<Waiter> {
+
+        private final Priority priority;
+        private final long enqueuedAt;
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+        private long sequence;
+        private long waitNanos;
+
+        private Waiter(Priority priority, long enqueuedAt) {
+            this.priority = priority;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
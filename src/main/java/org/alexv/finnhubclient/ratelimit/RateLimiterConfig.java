@@ -0,0 +1,35 @@
+package org.alexv.finnhubclient.ratelimit;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+@Value
+@Builder
+public class RateLimiterConfig {
+
+    @Builder.Default
+    int requestsPerSecond = 30;
+
+    @Builder.Default
+    int requestsPerMinute = 60;
+
+    @Builder.Default
+    boolean adaptToHeaders = true;
+
+    @Builder.Default
+    int maxRetries = 3;
+
+    @Builder.Default
+    Duration defaultRetryAfter = Duration.ofSeconds(1);
+
+    @Builder.Default
+    Consumer<Permit> permitListener = permit -> {
+    };
+
+    public static RateLimiterConfig defaults() {
+        return RateLimiterConfig.builder().build();
+    }
+}
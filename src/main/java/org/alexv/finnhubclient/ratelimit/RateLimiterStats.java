@@ -0,0 +1,19 @@
+package org.alexv.finnhubclient.ratelimit;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class RateLimiterStats {
+
+    long granted;
+    long throttled;
+    int queued;
+    Duration totalWait;
+    Duration maxWait;
+
+    public Duration getAverageWait() {
+        return granted == 0 ? Duration.ZERO : totalWait.dividedBy(granted);
+    }
+}
@@ -0,0 +1,47 @@
+package org.alexv.finnhubclient.ratelimit;
+
+class TokenBucket {
+
+    private final long periodNanos;
+    private double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, long periodNanos, long now) {
+        this.capacity = capacity;
+        this.periodNanos = periodNanos;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    long nanosUntilAvailable(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * periodNanos / capacity);
+    }
+
+    void consume() {
+        tokens -= 1;
+    }
+
+    void limitTo(double remaining) {
+        tokens = Math.min(tokens, remaining);
+    }
+
+    void resize(int newCapacity) {
+        if (newCapacity > 0 && newCapacity != capacity) {
+            tokens = tokens * newCapacity / capacity;
+            capacity = newCapacity;
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * capacity / periodNanos);
+            lastRefill = now;
+        }
+    }
+}
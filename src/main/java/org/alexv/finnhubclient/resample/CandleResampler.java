@@ -0,0 +1,352 @@
+package org.alexv.finnhubclient.resample;
+
+import org.alexv.finnhubclient.model.CandleSeries;
+import org.alexv.finnhubclient.model.Resolution;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Derives coarse candles from fine ones, so a single 1-minute request can stand in for the 5, 15, 30, 60, D, W
+ * and M requests of the same symbol. A bar takes the first open, the highest high, the lowest low and the last
+ * close of its candles, ignoring missing values, and the sum of their volumes; it is stamped with the start of
+ * its period.
+ * <p>
+ * Intraday bars are aligned to the session open in the configured zone and never cross local midnight. Daily
+ * bars cover one local date, by default its regular session only, and are stamped at 00:00 UTC of that date
+ * like the daily candles Finnhub serves; weekly bars start on Monday and monthly bars on the first. The last
+ * bar of a series may cover a period that has not ended yet.
+ * <p>
+ * Batches of symbols are resampled in parallel on a {@link ForkJoinPool}.
+ */
+public class CandleResampler {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long SKIP = Long.MIN_VALUE;
+
+    private final ResampleConfig config;
+    private final ForkJoinPool pool;
+    private final long sessionOpen;
+    private final long sessionClose;
+
+    public CandleResampler() {
+        this(ResampleConfig.defaults());
+    }
+
+    public CandleResampler(ResampleConfig config) {
+        this(config, ForkJoinPool.commonPool());
+    }
+
+    public CandleResampler(ResampleConfig config, ForkJoinPool pool) {
+        if (!config.getSessionClose().isAfter(config.getSessionOpen())) {
+            throw new IllegalArgumentException("Session must close after it opens: " + config.getSessionOpen()
+                    + " - " + config.getSessionClose());
+        }
+        this.config = config;
+        this.pool = pool;
+        this.sessionOpen = config.getSessionOpen().toSecondOfDay();
+        this.sessionClose = config.getSessionClose().toSecondOfDay();
+    }
+
+    /**
+     * Aggregates {@code source}, made of {@code from} candles, into {@code to} candles.
+     *
+     * @throws IllegalArgumentException if {@code to} cannot be built from {@code from}, see {@link #check}
+     */
+    public CandleSeries resample(CandleSeries source, Resolution from, Resolution to) {
+        return resample(source, from, EnumSet.of(to)).get(to);
+    }
+
+    /**
+     * Derives every resolution of {@code targets} from {@code source} in one cascade: each intraday resolution is
+     * built from the coarsest one already built that divides it, and weeks and months from the days.
+     */
+    public Map<Resolution, CandleSeries> resample(CandleSeries source, Resolution from, Collection<Resolution> targets) {
+        Set<Resolution> ordered = EnumSet.noneOf(Resolution.class);
+        for (Resolution target : targets) {
+            check(from, target);
+            ordered.add(target);
+        }
+
+        Map<Resolution, CandleSeries> built = new EnumMap<>(Resolution.class);
+        built.put(from, source);
+        Map<Resolution, CandleSeries> result = new EnumMap<>(Resolution.class);
+
+        // enum order is ascending duration, so every finer level exists before it is needed
+        for (Resolution target : ordered) {
+            CandleSeries series = built.get(target);
+            if (series == null) {
+                series = target.isIntraday() ? intraday(built.get(coarsestDivisor(built.keySet(), target)), target)
+                        : target == Resolution.DAY ? daily(source)
+                        : calendar(days(source, built), target);
+                built.put(target, series);
+            }
+            result.put(target, series);
+        }
+        return result;
+    }
+
+    /**
+     * Resamples every symbol of {@code sources} into {@code to} candles, in parallel. The result keeps the order
+     * of {@code sources}.
+     */
+    public Map<String, CandleSeries> resample(Map<String, CandleSeries> sources, Resolution from, Resolution to) {
+        check(from, to);
+        return forEachSymbol(sources, source -> resample(source, from, to));
+    }
+
+    /**
+     * Derives every resolution of {@code targets} for every symbol of {@code sources}, in parallel.
+     */
+    public Map<String, Map<Resolution, CandleSeries>> resample(Map<String, CandleSeries> sources, Resolution from,
+                                                              Collection<Resolution> targets) {
+        for (Resolution target : targets) {
+            check(from, target);
+        }
+        return forEachSymbol(sources, source -> resample(source, from, targets));
+    }
+
+    /**
+     * Intraday resolutions can be built from intraday resolutions dividing them, and from nothing else; daily,
+     * weekly and monthly ones from any intraday resolution, and weekly and monthly ones from days as well.
+     */
+    public static void check(Resolution from, Resolution to) {
+        boolean valid;
+        if (from == to) {
+            valid = true;
+        } else if (to.isIntraday()) {
+            valid = from.isIntraday()
+                    && to.duration().getSeconds() % from.duration().getSeconds() == 0;
+        } else {
+            valid = from.isIntraday() || from == Resolution.DAY && to != Resolution.DAY;
+        }
+
+        if (!valid) {
+            throw new IllegalArgumentException("Cannot resample " + from + " candles into " + to);
+        }
+    }
+
+    private <T> Map<String, T> forEachSymbol(Map<String, CandleSeries> sources, Function<CandleSeries, T> task) {
+        String[] symbols = sources.keySet().toArray(String[]::new);
+        CandleSeries[] series = new CandleSeries[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            series[i] = sources.get(symbols[i]);
+        }
+
+        Object[] results = new Object[symbols.length];
+        pool.invoke(new SymbolTask<>(series, results, task, 0, symbols.length));
+
+        Map<String, T> resampled = new LinkedHashMap<>();
+        for (int i = 0; i < symbols.length; i++) {
+            @SuppressWarnings("unchecked")
+            T result = (T) results[i];
+            resampled.put(symbols[i], result);
+        }
+        return resampled;
+    }
+
+    private static Resolution coarsestDivisor(Set<Resolution> built, Resolution target) {
+        Resolution best = null;
+        for (Resolution candidate : built) {
+            if (candidate.isIntraday() && candidate.compareTo(target) < 0
+                    && target.duration().getSeconds() % candidate.duration().getSeconds() == 0) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private CandleSeries days(CandleSeries source, Map<Resolution, CandleSeries> built) {
+        return built.computeIfAbsent(Resolution.DAY, day -> daily(source));
+    }
+
+    private CandleSeries intraday(CandleSeries source, Resolution to) {
+        long step = to.duration().getSeconds();
+        long anchor = sessionOpen % step;
+        LocalClock clock = new LocalClock(config.getZone().getRules());
+
+        return aggregate(source, epochSecond -> {
+            long offset = clock.offsetAt(epochSecond);
+            long local = epochSecond + offset;
+            long dayStart = Math.floorDiv(local, SECONDS_PER_DAY) * SECONDS_PER_DAY;
+            long start = dayStart + anchor + Math.floorDiv(local - dayStart - anchor, step) * step;
+            return Math.max(start, dayStart) - offset;
+        });
+    }
+
+    private CandleSeries daily(CandleSeries source) {
+        boolean extendedHours = config.isExtendedHoursInDaily();
+        LocalClock clock = new LocalClock(config.getZone().getRules());
+
+        return aggregate(source, epochSecond -> {
+            long local = epochSecond + clock.offsetAt(epochSecond);
+            long dayStart = Math.floorDiv(local, SECONDS_PER_DAY) * SECONDS_PER_DAY;
+            long secondOfDay = local - dayStart;
+            if (!extendedHours && (secondOfDay < sessionOpen || secondOfDay >= sessionClose)) {
+                return SKIP;
+            }
+            return dayStart;
+        });
+    }
+
+    /**
+     * Weeks or months of daily candles, whose stamps are UTC midnights of their dates.
+     */
+    private static CandleSeries calendar(CandleSeries days, Resolution to) {
+        if (to == Resolution.WEEK) {
+            return aggregate(days, epochSecond -> {
+                long day = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+                // epoch day 0 was a Thursday
+                return (day - Math.floorMod(day + 3, 7)) * SECONDS_PER_DAY;
+            });
+        }
+
+        long[] month = {Long.MAX_VALUE, Long.MIN_VALUE};
+        return aggregate(days, epochSecond -> {
+            long day = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+            if (day < month[0] || day >= month[1]) {
+                LocalDate first = LocalDate.ofEpochDay(day).withDayOfMonth(1);
+                month[0] = first.toEpochDay();
+                month[1] = first.plusMonths(1).toEpochDay();
+            }
+            return month[0] * SECONDS_PER_DAY;
+        });
+    }
+
+    /**
+     * Folds runs of consecutive candles falling into the same period into one bar each. Periods are non-decreasing
+     * for a time-ordered series, so a single pass suffices.
+     */
+    private static CandleSeries aggregate(CandleSeries source, Period period) {
+        int size = source.size();
+        CandleSeries.Builder builder = CandleSeries.builder(Math.max(16, size / 4)).status(source.getStatus());
+
+        long current = SKIP;
+        double open = Double.NaN;
+        double high = Double.NaN;
+        double low = Double.NaN;
+        double close = Double.NaN;
+        long volume = 0;
+
+        for (int i = 0; i < size; i++) {
+            long start = period.startOf(source.time(i));
+            if (start == SKIP) {
+                continue;
+            }
+
+            if (start != current) {
+                if (current != SKIP) {
+                    builder.add(current, open, high, low, close, volume);
+                }
+                current = start;
+                open = Double.NaN;
+                high = Double.NaN;
+                low = Double.NaN;
+                close = Double.NaN;
+                volume = 0;
+            }
+
+            double candleOpen = source.open(i);
+            double candleHigh = source.high(i);
+            double candleLow = source.low(i);
+            double candleClose = source.close(i);
+
+            if (Double.isNaN(open)) {
+                open = candleOpen;
+            }
+            if (Double.isNaN(high) || candleHigh > high) {
+                high = candleHigh;
+            }
+            if (Double.isNaN(low) || candleLow < low) {
+                low = candleLow;
+            }
+            if (!Double.isNaN(candleClose)) {
+                close = candleClose;
+            }
+            volume += source.volume(i);
+        }
+
+        if (current != SKIP) {
+            builder.add(current, open, high, low, close, volume);
+        }
+        return builder.build();
+    }
+
+    @FunctionalInterface
+    private interface Period {
+
+        /**
+         * Start of the period holding {@code epochSecond}, or {@code SKIP} to leave the candle out.
+         */
+        long startOf(long epochSecond);
+    }
+
+    /**
+     * UTC offset of a zone, looked up again only when a time falls outside the span the last offset is known
+     * to hold for. Candles come in time order, so that is about twice a year rather than once per candle.
+     */
+    private static final class LocalClock {
+
+        private final ZoneRules rules;
+        private long validFrom = Long.MAX_VALUE;
+        private long validTo = Long.MIN_VALUE;
+        private long offset;
+
+        private LocalClock(ZoneRules rules) {
+            this.rules = rules;
+        }
+
+        long offsetAt(long epochSecond) {
+            if (epochSecond < validFrom || epochSecond >= validTo) {
+                Instant instant = Instant.ofEpochSecond(epochSecond);
+                ZoneOffsetTransition next = rules.nextTransition(instant);
+                offset = rules.getOffset(instant).getTotalSeconds();
+                validFrom = epochSecond;
+                validTo = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+            }
+            return offset;
+        }
+    }
+
+    private static final class SymbolTask<T> extends RecursiveAction {
+
+        private final CandleSeries[] sources;
+        private final Object[] results;
+        private final Function<CandleSeries, T> task;
+        private final int from;
+        private final int to;
+
+        private SymbolTask(CandleSeries[] sources, Object[] results, Function<CandleSeries, T> task, int from, int to) {
+            this.sources = sources;
+            this.results = results;
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    results[from] = task.apply(sources[from]);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new SymbolTask<>(sources, results, task, from, middle),
+                    new SymbolTask<>(sources, results, task, middle, to));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.alexv.finnhubclient.resample;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+@Value
+@Builder
+public class ResampleConfig {
+
+    /**
+     * Exchange time zone; days, weeks and months are cut at its local midnight, across DST changes.
+     */
+    @Builder.Default
+    ZoneId zone = ZoneId.of("America/New_York");
+
+    /**
+     * Start of the regular session in {@link #zone}. Intraday bars are aligned to it, so hourly bars of a 09:30
+     * open start at 09:30, 10:30 and so on.
+     */
+    @Builder.Default
+    LocalTime sessionOpen = LocalTime.of(9, 30);
+
+    /**
+     * End of the regular session in {@link #zone}, exclusive.
+     */
+    @Builder.Default
+    LocalTime sessionClose = LocalTime.of(16, 0);
+
+    /**
+     * Whether daily and coarser bars also take candles from outside the regular session. Intraday bars always
+     * keep them.
+     */
+    @Builder.Default
+    boolean extendedHoursInDaily = false;
+
+    public static ResampleConfig defaults() {
+        return ResampleConfig.builder().build();
+    }
+}
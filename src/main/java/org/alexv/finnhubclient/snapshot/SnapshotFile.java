@@ -0,0 +1,99 @@
+package org.alexv.finnhubclient.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot: a fixed header followed by an opaque payload. The header records what the
+ * payload holds, when it was written and the CRC32C of the payload. Files are replaced atomically, so a
+ * reader sees either the previous snapshot or the new one, and are memory-mapped for reading.
+ */
+public final class SnapshotFile {
+
+    static final int MAGIC = 0x46485353;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes the payload next to {@code path} and moves it into place once it is on disk.
+     */
+    public static void write(Path path, SnapshotKind kind, Consumer<SnapshotOutput> writer) throws IOException {
+        SnapshotOutput output = new SnapshotOutput();
+        writer.accept(output);
+        ByteBuffer payload = output.payload();
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(kind.id())
+                .putInt((int) crc.getValue())
+                .putLong(Instant.now().toEpochMilli())
+                .putLong(payload.remaining())
+                .flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (payload.hasRemaining()) {
+                channel.write(payload);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the snapshot, or returns empty when there is none or it cannot be trusted: another kind, another
+     * format version, a truncated file or a checksum mismatch. Callers then rebuild it from the network.
+     */
+    public static Optional<SnapshotInput> read(Path path, SnapshotKind kind) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return Optional.empty();
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION || mapped.getInt(8) != kind.id()) {
+            return Optional.empty();
+        }
+        long length = mapped.getLong(24);
+        if (length != mapped.capacity() - HEADER_BYTES) {
+            return Optional.empty();
+        }
+
+        ByteBuffer payload = mapped.slice(HEADER_BYTES, (int) length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != mapped.getInt(12)) {
+            return Optional.empty();
+        }
+        return Optional.of(new SnapshotInput(Instant.ofEpochMilli(mapped.getLong(16)), payload));
+    }
+}
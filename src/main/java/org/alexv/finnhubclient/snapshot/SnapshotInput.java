@@ -0,0 +1,82 @@
+package org.alexv.finnhubclient.snapshot;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Reads back a payload written with {@link SnapshotOutput}, straight from the memory-mapped file. The checksum
+ * was verified when the file was opened, so a short or malformed payload means a bug in the reader, and
+ * surfaces as a {@link BufferUnderflowException} or {@link IllegalArgumentException}.
+ */
+public final class SnapshotInput {
+
+    private final Instant createdAt;
+    private final ByteBuffer buffer;
+
+    SnapshotInput(Instant createdAt, ByteBuffer buffer) {
+        this.createdAt = createdAt;
+        this.buffer = buffer;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getInt() {
+        return buffer.getInt();
+    }
+
+    public long getLong() {
+        return buffer.getLong();
+    }
+
+    public double getDouble() {
+        return buffer.getDouble();
+    }
+
+    public String getString() {
+        if (buffer.getInt(buffer.position()) < 0) {
+            buffer.getInt();
+            return null;
+        }
+        return new String(getBytes(), StandardCharsets.UTF_8);
+    }
+
+    public String[] getStrings() {
+        String[] values = new String[length(1)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getString();
+        }
+        return values;
+    }
+
+    public byte[] getBytes() {
+        byte[] values = new byte[length(1)];
+        buffer.get(values);
+        return values;
+    }
+
+    public int[] getInts() {
+        int[] values = new int[length(Integer.BYTES)];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + Integer.BYTES * values.length);
+        return values;
+    }
+
+    public short[] getShorts() {
+        short[] values = new short[length(Short.BYTES)];
+        buffer.asShortBuffer().get(values);
+        buffer.position(buffer.position() + Short.BYTES * values.length);
+        return values;
+    }
+
+    private int length(int elementBytes) {
+        int length = buffer.getInt();
+        if (length < 0 || (long) length * elementBytes > buffer.remaining()) {
+            throw new IllegalArgumentException("Array of " + length + " elements overruns the snapshot");
+        }
+        return length;
+    }
+}
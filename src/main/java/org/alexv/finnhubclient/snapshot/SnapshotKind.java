@@ -0,0 +1,20 @@
+package org.alexv.finnhubclient.snapshot;
+
+/**
+ * What a snapshot file holds. The id is written to the file, so it must never change.
+ */
+public enum SnapshotKind {
+
+    SYMBOL_CATALOG(1),
+    COMPANY_PROFILES(2);
+
+    private final int id;
+
+    SnapshotKind(int id) {
+        this.id = id;
+    }
+
+    public int id() {
+        return id;
+    }
+}
@@ -0,0 +1,83 @@
+package org.alexv.finnhubclient.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable big-endian buffer a snapshot payload is written into. Strings are UTF-8 with an int length
+ * prefix, -1 standing for {@code null}; arrays are prefixed with their length.
+ */
+public final class SnapshotOutput {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+    public SnapshotOutput putInt(int value) {
+        ensureCapacity(Integer.BYTES).putInt(value);
+        return this;
+    }
+
+    public SnapshotOutput putLong(long value) {
+        ensureCapacity(Long.BYTES).putLong(value);
+        return this;
+    }
+
+    public SnapshotOutput putDouble(double value) {
+        ensureCapacity(Double.BYTES).putDouble(value);
+        return this;
+    }
+
+    public SnapshotOutput putString(String value) {
+        if (value == null) {
+            return putInt(-1);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return putBytes(bytes, bytes.length);
+    }
+
+    public SnapshotOutput putStrings(String[] values) {
+        putInt(values.length);
+        for (String value : values) {
+            putString(value);
+        }
+        return this;
+    }
+
+    public SnapshotOutput putBytes(byte[] values, int length) {
+        ensureCapacity(Integer.BYTES + length).putInt(length).put(values, 0, length);
+        return this;
+    }
+
+    public SnapshotOutput putInts(int[] values) {
+        ensureCapacity(Integer.BYTES + Integer.BYTES * values.length).putInt(values.length);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + Integer.BYTES * values.length);
+        return this;
+    }
+
+    public SnapshotOutput putShorts(short[] values) {
+        ensureCapacity(Integer.BYTES + Short.BYTES * values.length).putInt(values.length);
+        buffer.asShortBuffer().put(values);
+        buffer.position(buffer.position() + Short.BYTES * values.length);
+        return this;
+    }
+
+    /**
+     * The bytes written so far.
+     */
+    ByteBuffer payload() {
+        return buffer.duplicate().flip();
+    }
+
+    private ByteBuffer ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            long capacity = Math.max(buffer.capacity() * 2L, (long) buffer.position() + bytes);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Snapshot payload exceeds 2 GB");
+            }
+            ByteBuffer grown = ByteBuffer.allocate((int) capacity);
+            grown.put(buffer.flip());
+            buffer = grown;
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,340 @@
+package org.alexv.finnhubclient.store;
+
+import org.alexv.finnhubclient.model.CandleSeries;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * Persistent candle history, one append-only file of fixed-width records per symbol and resolution.
+ * Files are memory-mapped for reads, so a range lookup is a binary search over the time column.
+ * A file always covers one contiguous range, recorded in its header as the range that was fetched rather than the
+ * bars it holds, so weekends, holidays and the time before a listing are not asked for again; {@link #load}
+ * fetches only what lies outside of it.
+ */
+public class CandleStore {
+
+    static final int MAGIC = 0x46484353;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 48;
+
+    private static final int COVERAGE_OFFSET = 16;
+
+    private final Path directory;
+    private final ConcurrentMap<String, Series> series = new ConcurrentHashMap<>();
+
+    public CandleStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public CompletableFuture<CandleSeries> load(String symbol, String resolution, long fromEpoch, long toEpoch,
+                                                BiFunction<Long, Long, CompletableFuture<CandleSeries>> fetcher) {
+        Series stored = series(symbol, resolution);
+        long[] coverage = stored.coverage();
+        // bars after now are yet to come, so they are not covered by asking for them
+        long fetchedTo = Math.min(toEpoch, Instant.now().getEpochSecond());
+
+        if (coverage == null) {
+            CompletableFuture<CandleSeries> fetch = fetcher.apply(fromEpoch, toEpoch);
+            return cancelling(fetch.thenApply(fetched -> {
+                stored.append(fetched, fromEpoch, fetchedTo);
+                return fetched;
+            }), fetch);
+        }
+
+        long tailFrom = stored.tailFrom();
+        CompletableFuture<CandleSeries> headFetch = fromEpoch < coverage[0]
+                ? fetcher.apply(fromEpoch, coverage[0] - 1)
+                : CompletableFuture.completedFuture(CandleSeries.empty());
+        CompletableFuture<CandleSeries> tailFetch = toEpoch > coverage[1]
+                ? fetcher.apply(tailFrom, toEpoch)
+                : CompletableFuture.completedFuture(CandleSeries.empty());
+        CompletableFuture<Void> head = headFetch.thenAccept(fetched -> stored.prepend(fetched, fromEpoch));
+        CompletableFuture<Void> tail = tailFetch.thenAccept(fetched -> stored.append(fetched, tailFrom, fetchedTo));
+
+        return cancelling(head.thenCombine(tail, (ignored, alsoIgnored) -> stored.read(fromEpoch, toEpoch)),
+                headFetch, tailFetch);
+    }
+
+    /**
+     * Cancelling a load cancels the fetches it is waiting for.
+     */
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<T> load, CompletableFuture<?>... fetches) {
+        load.whenComplete((value, error) -> {
+            if (load.isCancelled()) {
+                for (CompletableFuture<?> fetch : fetches) {
+                    fetch.cancel(true);
+                }
+            }
+        });
+        return load;
+    }
+
+    public CandleSeries read(String symbol, String resolution, long fromEpoch, long toEpoch) {
+        return series(symbol, resolution).read(fromEpoch, toEpoch);
+    }
+
+    public void append(String symbol, String resolution, CandleSeries candles) {
+        if (!candles.isEmpty()) {
+            series(symbol, resolution).append(candles, candles.time(0), candles.time(candles.size() - 1));
+        }
+    }
+
+    /**
+     * First and last epoch second of the range fetched so far, or {@code null} when nothing was fetched yet. There
+     * need not be bars at either end.
+     */
+    public long[] coverage(String symbol, String resolution) {
+        return series(symbol, resolution).coverage();
+    }
+
+    public void delete(String symbol, String resolution) {
+        Series stored = series(symbol, resolution);
+        synchronized (stored) {
+            try {
+                Files.deleteIfExists(stored.path);
+                stored.mapped = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Series series(String symbol, String resolution) {
+        String name = fileName(symbol) + "-" + fileName(resolution) + ".candles";
+        return series.computeIfAbsent(name, key -> new Series(directory.resolve(key)));
+    }
+
+    private static String fileName(String value) {
+        StringBuilder name = new StringBuilder(value.length());
+
+        for (char c : value.toCharArray()) {
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '_') {
+                name.append(c);
+            } else {
+                name.append('~').append(String.format("%04x", (int) c));
+            }
+        }
+        return name.toString();
+    }
+
+    private static final class Series {
+
+        private final Path path;
+        private MappedByteBuffer mapped;
+        private int count;
+        private long coveredFrom = Long.MAX_VALUE;
+        private long coveredTo = Long.MIN_VALUE;
+
+        private Series(Path path) {
+            this.path = path;
+        }
+
+        private synchronized long[] coverage() {
+            records();
+            return coveredFrom > coveredTo ? null : new long[]{coveredFrom, coveredTo};
+        }
+
+        /**
+         * Where fetching newer candles starts: at the last stored bar, which may still have been forming when it
+         * was fetched, or at the end of the coverage when there is none.
+         */
+        private synchronized long tailFrom() {
+            ByteBuffer records = records();
+            return count == 0 ? coveredTo : time(records, count - 1);
+        }
+
+        private synchronized CandleSeries read(long fromEpoch, long toEpoch) {
+            ByteBuffer records = records();
+            int from = indexOf(records, fromEpoch);
+            int to = toEpoch == Long.MAX_VALUE ? count : indexOf(records, toEpoch + 1);
+
+            CandleSeries.Builder builder = CandleSeries.builder(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                int offset = HEADER_BYTES + i * RECORD_BYTES;
+                builder.add(records.getLong(offset), records.getDouble(offset + 8), records.getDouble(offset + 16),
+                        records.getDouble(offset + 24), records.getDouble(offset + 32), records.getLong(offset + 40));
+            }
+            return builder.build();
+        }
+
+        /**
+         * Stores candles fetched for {@code [fromEpoch, toEpoch]}, which starts within or right after the coverage.
+         */
+        private synchronized void append(CandleSeries candles, long fromEpoch, long toEpoch) {
+            ByteBuffer records = records();
+            long last = count == 0 ? Long.MIN_VALUE : time(records, count - 1);
+            int start = candles.indexOf(last);
+            long from = Math.min(coveredFrom, candles.isEmpty() ? fromEpoch : Math.min(fromEpoch, candles.time(0)));
+            long to = Math.max(coveredTo, candles.isEmpty() ? toEpoch
+                    : Math.max(toEpoch, candles.time(candles.size() - 1)));
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                if (count == 0) {
+                    channel.write(header(coveredFrom, coveredTo), 0);
+                }
+
+                int index = count;
+                if (start < candles.size() && candles.time(start) == last) {
+                    index = count - 1;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+                for (int i = start; i < candles.size(); i++) {
+                    channel.write(record(buffer, candles, i), HEADER_BYTES + (long) index * RECORD_BYTES);
+                    index++;
+                }
+                // widened only once the candles are in, so an interrupted append is fetched again
+                channel.write(coverage(from, to), COVERAGE_OFFSET);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            mapped = null;
+        }
+
+        /**
+         * Stores candles fetched from {@code fromEpoch} up to the start of the coverage.
+         */
+        private synchronized void prepend(CandleSeries candles, long fromEpoch) {
+            ByteBuffer records = records();
+            long first = count == 0 ? Long.MAX_VALUE : time(records, 0);
+            int end = candles.indexOf(first);
+            long from = Math.min(coveredFrom, candles.isEmpty() ? fromEpoch : Math.min(fromEpoch, candles.time(0)));
+
+            if (end == 0) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.write(coverage(from, coveredTo), COVERAGE_OFFSET);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                mapped = null;
+                return;
+            }
+
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(header(from, coveredTo));
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+                for (int i = 0; i < end; i++) {
+                    channel.write(record(buffer, candles, i));
+                }
+                channel.write(records.slice(HEADER_BYTES, count * RECORD_BYTES));
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            mapped = null;
+        }
+
+        private ByteBuffer records() {
+            try {
+                long size = Files.exists(path) ? Files.size(path) : 0;
+                if (mapped != null && mapped.capacity() == size) {
+                    return mapped;
+                }
+                if (size < HEADER_BYTES) {
+                    return empty();
+                }
+
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                if (mapped.getInt(0) != MAGIC) {
+                    throw new IOException("Not a candle store file: " + path);
+                }
+                if (mapped.getInt(4) != VERSION) {
+                    // older files do not record what was fetched, so their history is fetched again
+                    mapped = null;
+                    Files.delete(path);
+                    return empty();
+                }
+                // a torn trailing record from an interrupted append is ignored
+                count = (int) ((size - HEADER_BYTES) / RECORD_BYTES);
+                coveredFrom = mapped.getLong(COVERAGE_OFFSET);
+                coveredTo = mapped.getLong(COVERAGE_OFFSET + 8);
+                return mapped;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private ByteBuffer empty() {
+            count = 0;
+            coveredFrom = Long.MAX_VALUE;
+            coveredTo = Long.MIN_VALUE;
+            return ByteBuffer.allocate(HEADER_BYTES);
+        }
+
+        private int indexOf(ByteBuffer records, long epochSecond) {
+            int low = 0;
+            int high = count;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (time(records, mid) < epochSecond) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static long time(ByteBuffer records, int index) {
+            return records.getLong(HEADER_BYTES + index * RECORD_BYTES);
+        }
+
+        private static ByteBuffer header(long coveredFrom, long coveredTo) {
+            return ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(RECORD_BYTES)
+                    .putLong(coveredFrom)
+                    .putLong(coveredTo)
+                    .flip();
+        }
+
+        private static ByteBuffer coverage(long from, long to) {
+            return ByteBuffer.allocate(2 * Long.BYTES).putLong(from).putLong(to).flip();
+        }
+
+        private static ByteBuffer record(ByteBuffer buffer, CandleSeries candles, int index) {
+            return buffer.clear()
+                    .putLong(candles.time(index))
+                    .putDouble(candles.open(index))
+                    .putDouble(candles.high(index))
+                    .putDouble(candles.low(index))
+                    .putDouble(candles.close(index))
+                    .putLong(candles.volume(index))
+                    .flip();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.alexv.finnhubclient.stream;
+
+/**
+ * Producer-side intern table that maps the symbol characters of a message to one shared {@code String},
+ * so decoding a trade for a known symbol does not allocate.
+ */
+final class SymbolTable {
+
+    private String[] table = new String[64];
+    private int size;
+
+    String intern(char[] chars, int offset, int length) {
+        int hash = hash(chars, offset, length);
+        int mask = table.length - 1;
+
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            String existing = table[i];
+            if (existing == null) {
+                String symbol = new String(chars, offset, length);
+                table[i] = symbol;
+                if (++size * 2 > table.length) {
+                    grow();
+                }
+                return symbol;
+            }
+            if (existing.hashCode() == hash && matches(existing, chars, offset, length)) {
+                return existing;
+            }
+        }
+    }
+
+    private void grow() {
+        String[] old = table;
+        table = new String[old.length * 2];
+        int mask = table.length - 1;
+
+        for (String symbol : old) {
+            if (symbol != null) {
+                int i = symbol.hashCode() & mask;
+                while (table[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = symbol;
+            }
+        }
+    }
+
+    // same function as String.hashCode(), so a stored symbol's cached hash can be compared directly
+    private static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    private static boolean matches(String symbol, char[] chars, int offset, int length) {
+        if (symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
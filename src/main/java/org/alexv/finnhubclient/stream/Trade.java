@@ -0,0 +1,46 @@
+package org.alexv.finnhubclient.stream;
+
+import lombok.Getter;
+
+/**
+ * One slot of the trade ring buffer. Instances are reused for later trades, so a listener must copy
+ * whatever it needs before {@link TradeListener#onTrade} returns.
+ */
+@Getter
+public final class Trade {
+
+    private long sequence;
+    private String symbol;
+    private double price;
+    private double volume;
+    private long timestamp;
+
+    void reset(long sequence) {
+        this.sequence = sequence;
+        this.symbol = null;
+        this.price = Double.NaN;
+        this.volume = Double.NaN;
+        this.timestamp = 0;
+    }
+
+    void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    void setPrice(double price) {
+        this.price = price;
+    }
+
+    void setVolume(double volume) {
+        this.volume = volume;
+    }
+
+    void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "Trade[" + sequence + ", " + symbol + ", price=" + price + ", volume=" + volume + ", t=" + timestamp + "]";
+    }
+}
@@ -0,0 +1,10 @@
+package org.alexv.finnhubclient.stream;
+
+@FunctionalInterface
+public interface TradeListener {
+
+    /**
+     * Called on the listener's own dispatcher thread, in sequence order. The trade is only valid until this returns.
+     */
+    void onTrade(Trade trade);
+}
@@ -0,0 +1,122 @@
+package org.alexv.finnhubclient.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Decodes Finnhub socket messages straight into ring buffer slots. Field names are canonicalised by
+ * Jackson and symbols are interned, so a trade message for known symbols produces no garbage beyond the parser.
+ */
+final class TradeMessageDecoder {
+
+    private static final char[] TRADE = "trade".toCharArray();
+    private static final char[] ERROR = "error".toCharArray();
+
+    private final JsonFactory jsonFactory;
+    private final TradeRingBuffer ring;
+    private final SymbolTable symbols = new SymbolTable();
+
+    TradeMessageDecoder(JsonFactory jsonFactory, TradeRingBuffer ring) {
+        this.jsonFactory = jsonFactory;
+        this.ring = ring;
+    }
+
+    /**
+     * Returns the {@code msg} of an error message, {@code null} for anything else. Synchronized because the
+     * ring buffer has a single producer and an old socket may still deliver while its replacement opens.
+     */
+    synchronized String decode(char[] message, int length) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(message, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            // "data" usually precedes "type", so trades are published unless the type says otherwise
+            boolean trades = true;
+            boolean error = false;
+            String errorMessage = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "type" -> {
+                        trades = textEquals(parser, TRADE);
+                        error = textEquals(parser, ERROR);
+                    }
+                    case "data" -> {
+                        if (trades && value == JsonToken.START_ARRAY) {
+                            decodeTrades(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "msg" -> errorMessage = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return error ? (errorMessage != null ? errorMessage : "unknown error") : null;
+        }
+    }
+
+    /**
+     * Each trade is read in full before its slot is claimed, so a value that fails to parse or a truncated frame
+     * leaves the ring untouched rather than publishing a half-filled slot with the next trade.
+     */
+    private void decodeTrades(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String symbol = null;
+            double price = Double.NaN;
+            double volume = Double.NaN;
+            long timestamp = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "s" -> symbol = symbols.intern(parser.getTextCharacters(), parser.getTextOffset(),
+                            parser.getTextLength());
+                    case "p" -> price = parser.getDoubleValue();
+                    case "v" -> volume = parser.getDoubleValue();
+                    case "t" -> timestamp = parser.getLongValue();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(parser, "Truncated trade");
+            }
+
+            Trade trade = ring.claim();
+            trade.setSymbol(symbol);
+            trade.setPrice(price);
+            trade.setVolume(volume);
+            trade.setTimestamp(timestamp);
+            ring.publish();
+        }
+    }
+
+    private static boolean textEquals(JsonParser parser, char[] expected) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING || parser.getTextLength() != expected.length) {
+            return false;
+        }
+
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < expected.length; i++) {
+            if (chars[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
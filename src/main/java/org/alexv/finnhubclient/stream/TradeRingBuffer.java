@@ -0,0 +1,176 @@
+package org.alexv.finnhubclient.stream;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Single-producer ring of preallocated {@link Trade} slots. Every listener runs on its own dispatcher
+ * thread with its own read sequence; the producer waits rather than overwrite a slot that the slowest
+ * dispatcher has not read yet. A dispatcher that finds nothing to read spins briefly, then parks until
+ * {@link #publish()} wakes it.
+ */
+final class TradeRingBuffer {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_PRODUCER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Trade[] slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<Dispatcher> dispatchers = new CopyOnWriteArrayList<>();
+    private final Consumer<Throwable> errorListener;
+    private final AtomicInteger sleeping = new AtomicInteger();
+
+    private long claimed = -1;
+    private volatile boolean closed;
+
+    TradeRingBuffer(int size, Consumer<Throwable> errorListener) {
+        int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+
+        this.slots = new Trade[capacity];
+        this.mask = capacity - 1;
+        this.errorListener = errorListener;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Trade();
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    long cursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Producer only: the next slot to fill, reset and stamped with its sequence.
+     */
+    Trade claim() {
+        long next = claimed + 1;
+        long wrapPoint = next - slots.length;
+
+        for (int rounds = 0; wrapPoint > minimumSequence() && !closed; rounds++) {
+            LockSupport.parkNanos(backOff(rounds, MAX_PRODUCER_PARK_NANOS));
+        }
+
+        claimed = next;
+        Trade trade = slots[(int) next & mask];
+        trade.reset(next);
+        return trade;
+    }
+
+    /**
+     * Producer only: makes every claimed slot visible to the dispatchers and wakes those that are parked.
+     */
+    void publish() {
+        cursor.set(claimed);
+        if (sleeping.get() > 0) {
+            for (Dispatcher dispatcher : dispatchers) {
+                LockSupport.unpark(dispatcher.thread);
+            }
+        }
+    }
+
+    AutoCloseable addListener(TradeListener listener) {
+        Dispatcher dispatcher = new Dispatcher(listener, cursor.get());
+        dispatchers.add(dispatcher);
+
+        Thread thread = new Thread(dispatcher, "finnhub-trades-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        dispatcher.thread = thread;
+        thread.start();
+
+        return () -> {
+            dispatcher.running = false;
+            dispatchers.remove(dispatcher);
+            LockSupport.unpark(thread);
+        };
+    }
+
+    void close() {
+        closed = true;
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.running = false;
+            LockSupport.unpark(dispatcher.thread);
+        }
+        dispatchers.clear();
+    }
+
+    private long minimumSequence() {
+        long minimum = claimed;
+        for (Dispatcher dispatcher : dispatchers) {
+            minimum = Math.min(minimum, dispatcher.sequence.get());
+        }
+        return minimum;
+    }
+
+    private static long backOff(int rounds, long maxNanos) {
+        return rounds >= 20 ? maxNanos : Math.min(maxNanos, MIN_PARK_NANOS << rounds);
+    }
+
+    private final class Dispatcher implements Runnable {
+
+        private final TradeListener listener;
+        private final AtomicLong sequence;
+        private volatile Thread thread;
+        private volatile boolean running = true;
+
+        private Dispatcher(TradeListener listener, long start) {
+            this.listener = listener;
+            this.sequence = new AtomicLong(start);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+
+            while (running) {
+                long next = sequence.get() + 1;
+                long available = cursor.get();
+
+                if (available < next) {
+                    idle(idle++, next);
+                    continue;
+                }
+                idle = 0;
+
+                for (long i = next; i <= available; i++) {
+                    try {
+                        listener.onTrade(slots[(int) i & mask]);
+                    } catch (RuntimeException e) {
+                        errorListener.accept(e);
+                    }
+                }
+                sequence.set(available);
+            }
+        }
+
+        // spin briefly for latency, then park until publish() signals so that an idle stream does not burn a
+        // core; the timeout only bounds the wait should a signal be missed
+        private void idle(int rounds, long next) {
+            if (rounds < 100) {
+                Thread.onSpinWait();
+            } else if (rounds < 200) {
+                Thread.yield();
+            } else {
+                sleeping.incrementAndGet();
+                try {
+                    // re-checked after announcing, so a publish in between either is seen here or unparks us
+                    if (cursor.get() < next && running) {
+                        LockSupport.parkNanos(backOff(rounds - 200, MAX_IDLE_PARK_NANOS));
+                    }
+                } finally {
+                    sleeping.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.alexv.finnhubclient.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Real-time trades over the Finnhub WebSocket. Subscriptions are remembered and replayed after every
+ * reconnect; trades are decoded into a preallocated {@link TradeRingBuffer} and dispatched to each
+ * listener on its own thread.
+ */
+public class TradeStream implements AutoCloseable {
+
+    private final TradeStreamConfig config;
+    private final URI uri;
+    private final HttpClient httpClient;
+    private final TradeRingBuffer ring;
+    private final TradeMessageDecoder decoder;
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong reconnects = new AtomicLong();
+
+    private volatile WebSocket webSocket;
+    private volatile boolean closed;
+    private CompletableFuture<?> sending = CompletableFuture.completedFuture(null);
+    private int reconnectAttempt;
+
+    public TradeStream(String token) {
+        this(token, TradeStreamConfig.defaults());
+    }
+
+    public TradeStream(String token, TradeStreamConfig config) {
+        this.config = config;
+        this.uri = withToken(config.getUri(), token);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(config.getConnectTimeout())
+                .build();
+        this.ring = new TradeRingBuffer(config.getBufferSize(), config.getErrorListener());
+        this.decoder = new TradeMessageDecoder(new JsonFactory(), ring);
+    }
+
+    /**
+     * Opens the socket. If the first attempt fails the returned future fails; once connected, dropped
+     * connections are re-established with jittered exponential backoff until {@link #close()}.
+     */
+    public CompletableFuture<Void> connect() {
+        return open().thenAccept(ignored -> { });
+    }
+
+    public void subscribe(String... symbols) {
+        for (String symbol : symbols) {
+            if (subscriptions.add(symbol)) {
+                send(webSocket, "subscribe", symbol);
+            }
+        }
+    }
+
+    public void unsubscribe(String... symbols) {
+        for (String symbol : symbols) {
+            if (subscriptions.remove(symbol)) {
+                send(webSocket, "unsubscribe", symbol);
+            }
+        }
+    }
+
+    public Set<String> getSubscriptions() {
+        return Collections.unmodifiableSet(subscriptions);
+    }
+
+    /**
+     * Starts a dispatcher thread for the listener; closing the returned handle stops it.
+     */
+    public AutoCloseable addListener(TradeListener listener) {
+        return ring.addListener(listener);
+    }
+
+    public boolean isConnected() {
+        WebSocket current = webSocket;
+        return current != null && !current.isOutputClosed();
+    }
+
+    public long getReconnects() {
+        return reconnects.get();
+    }
+
+    public long getPublishedTrades() {
+        return ring.cursor() + 1;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        WebSocket current = webSocket;
+        if (current != null) {
+            current.sendClose(WebSocket.NORMAL_CLOSURE, "").exceptionally(error -> null);
+        }
+        ring.close();
+        httpClient.shutdownNow();
+    }
+
+    private CompletableFuture<WebSocket> open() {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Trade stream is closed"));
+        }
+
+        return httpClient.newWebSocketBuilder()
+                .connectTimeout(config.getConnectTimeout())
+                .buildAsync(uri, new Listener())
+                .thenApply(connected -> {
+                    synchronized (this) {
+                        webSocket = connected;
+                        reconnectAttempt = 0;
+                    }
+                    for (String symbol : subscriptions) {
+                        send(connected, "subscribe", symbol);
+                    }
+                    return connected;
+                });
+    }
+
+    private void disconnected(WebSocket dropped) {
+        synchronized (this) {
+            if (closed || dropped != webSocket) {
+                return;
+            }
+            webSocket = null;
+        }
+        reconnect();
+    }
+
+    private void reconnect() {
+        long delay;
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            long base = config.getReconnectBackoff().toMillis() << Math.min(reconnectAttempt++, 16);
+            long capped = Math.min(base, config.getMaxReconnectBackoff().toMillis());
+            delay = capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+        }
+
+        reconnects.incrementAndGet();
+        CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> open())
+                .whenComplete((connected, error) -> {
+                    if (error != null && !closed) {
+                        config.getErrorListener().accept(error);
+                        reconnect();
+                    }
+                });
+    }
+
+    // WebSocket allows one outstanding send at a time, so messages are chained
+    private synchronized void send(WebSocket target, String type, String symbol) {
+        if (target == null) {
+            return;
+        }
+
+        String message = "{\"type\":\"" + type + "\",\"symbol\":\""
+                + new String(JsonStringEncoder.getInstance().quoteAsString(symbol)) + "\"}";
+        sending = sending
+                .handle((ignored, error) -> null)
+                .thenCompose(ignored -> target.sendText(message, true))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        config.getErrorListener().accept(error);
+                    }
+                });
+    }
+
+    private static URI withToken(URI uri, String token) {
+        String encoded = "token=" + URLEncoder.encode(token, StandardCharsets.UTF_8);
+        String base = uri.toString();
+        return URI.create(base + (uri.getRawQuery() == null ? "?" : "&") + encoded);
+    }
+
+    private class Listener implements WebSocket.Listener {
+
+        private char[] message = new char[4096];
+        private int length;
+
+        @Override
+        public void onOpen(WebSocket socket) {
+            socket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+            append(data);
+
+            if (last) {
+                try {
+                    String error = decoder.decode(message, length);
+                    if (error != null) {
+                        config.getErrorListener().accept(new IllegalStateException("Finnhub stream error: " + error));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    config.getErrorListener().accept(e);
+                } finally {
+                    length = 0;
+                }
+            }
+
+            socket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket socket, ByteBuffer data, boolean last) {
+            socket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket socket, int statusCode, String reason) {
+            disconnected(socket);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket socket, Throwable error) {
+            config.getErrorListener().accept(error);
+            disconnected(socket);
+        }
+
+        private void append(CharSequence data) {
+            int required = length + data.length();
+            if (required > message.length) {
+                message = Arrays.copyOf(message, Math.max(required, message.length * 2));
+            }
+
+            if (data instanceof String text) {
+                text.getChars(0, text.length(), message, length);
+            } else {
+                for (int i = 0; i < data.length(); i++) {
+                    message[length + i] = data.charAt(i);
+                }
+            }
+            length = required;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.alexv.finnhubclient.stream;
+
+import lombok.Builder;
+import lombok.Value;
+import org.alexv.finnhubclient.client.Endpoint;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+@Value
+@Builder
+public class TradeStreamConfig {
+
+    @Builder.Default
+    URI uri = URI.create(Endpoint.TRADES.url());
+
+    /**
+     * Number of preallocated trade slots, rounded up to a power of two.
+     */
+    @Builder.Default
+    int bufferSize = 8192;
+
+    @Builder.Default
+    Duration connectTimeout = Duration.ofSeconds(10);
+
+    @Builder.Default
+    Duration reconnectBackoff = Duration.ofSeconds(1);
+
+    @Builder.Default
+    Duration maxReconnectBackoff = Duration.ofSeconds(30);
+
+    @Builder.Default
+    Consumer<Throwable> errorListener = error -> {
+    };
+
+    public static TradeStreamConfig defaults() {
+        return TradeStreamConfig.builder().build();
+    }
+}
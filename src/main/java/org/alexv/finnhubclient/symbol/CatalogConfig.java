@@ -0,0 +1,39 @@
+package org.alexv.finnhubclient.symbol;
+
+import lombok.Builder;
+import lombok.Value;
+import org.alexv.finnhubclient.model.Exchange;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Value
+@Builder
+public class CatalogConfig {
+
+    @Builder.Default
+    Set<Exchange> exchanges = EnumSet.allOf(Exchange.class);
+
+    /**
+     * A snapshot older than this is not used at all; the catalog is loaded from the network instead.
+     */
+    @Builder.Default
+    Duration maxAge = Duration.ofDays(7);
+
+    /**
+     * A catalog older than this is reloaded in the background, and so is the catalog every interval after.
+     */
+    @Builder.Default
+    Duration refreshAfter = Duration.ofDays(1);
+
+    /**
+     * Exchange lists streamed at once during a load.
+     */
+    @Builder.Default
+    int parallelism = SymbolCatalog.DEFAULT_PARALLELISM;
+
+    public static CatalogConfig defaults() {
+        return CatalogConfig.builder().build();
+    }
+}
@@ -0,0 +1,46 @@
+package org.alexv.finnhubclient.symbol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe dictionary for a low-cardinality column. Values are encoded as unsigned 16-bit codes, code 0
+ * standing for {@code null}.
+ */
+final class StringDictionary {
+
+    private static final int MAX_CODE = 0xFFFF;
+
+    private final String name;
+    private final ConcurrentMap<String, Short> codes = new ConcurrentHashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    StringDictionary(String name) {
+        this.name = name;
+        values.add(null);
+    }
+
+    short encode(String value) {
+        if (value == null) {
+            return 0;
+        }
+        return codes.computeIfAbsent(value, this::assign);
+    }
+
+    /**
+     * The values by code, index 0 being {@code null}.
+     */
+    synchronized String[] values() {
+        return values.toArray(String[]::new);
+    }
+
+    private synchronized Short assign(String value) {
+        if (values.size() > MAX_CODE) {
+            throw new IllegalStateException("More than " + MAX_CODE + " distinct " + name + " values");
+        }
+        values.add(value);
+        return (short) (values.size() - 1);
+    }
+}
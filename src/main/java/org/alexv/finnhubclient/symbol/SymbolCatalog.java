@@ -0,0 +1,653 @@
+package org.alexv.finnhubclient.symbol;
+
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.client.UnauthorizedException;
+import org.alexv.finnhubclient.model.EnrichedSymbol;
+import org.alexv.finnhubclient.model.Exchange;
+import org.alexv.finnhubclient.snapshot.SnapshotFile;
+import org.alexv.finnhubclient.snapshot.SnapshotInput;
+import org.alexv.finnhubclient.snapshot.SnapshotKind;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable symbol lists of many exchanges, stored column-wise instead of as one {@link EnrichedSymbol} per
+ * listing. Type, currency and MIC take a handful of distinct values and are dictionary-encoded into 16-bit
+ * codes; the identifiers and the description of each listing are packed back to back as UTF-8 into one shared
+ * byte array. That is around a hundred bytes per listing instead of nine objects, so the catalog of every
+ * exchange stays resident for a few tens of MB. {@link EnrichedSymbol}s are decoded on demand.
+ * <p>
+ * Listings are numbered from 0 to {@code size() - 1}, grouped by exchange in load order.
+ */
+public final class SymbolCatalog {
+
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private static final int SYMBOL = 0;
+    private static final int DISPLAY_SYMBOL = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int FIGI = 3;
+    private static final int ISIN = 4;
+    private static final int SHARE_CLASS_FIGI = 5;
+    private static final int SYMBOL2 = 6;
+    private static final int FIELDS = 7;
+
+    // field tags: 0 is null, 1 repeats the symbol, n + 2 precedes n bytes
+    private static final int NULL_TAG = 0;
+    private static final int SAME_AS_SYMBOL_TAG = 1;
+    private static final int LENGTH_TAG = 2;
+
+    private final Instant loadedAt;
+    private final Exchange[] exchanges;
+    private final int[] exchangeStarts;
+    private final Set<Exchange> unavailable;
+    private final byte[] data;
+    private final int[] offsets;
+    private final short[] types;
+    private final short[] currencies;
+    private final short[] mics;
+    private final String[] typeValues;
+    private final String[] currencyValues;
+    private final String[] micValues;
+    private final int[] symbolTable;
+
+    private SymbolCatalog(Instant loadedAt, Exchange[] exchanges, int[] exchangeStarts, Set<Exchange> unavailable,
+                          byte[] data, int[] offsets, short[] types, short[] currencies, short[] mics,
+                          String[] typeValues, String[] currencyValues, String[] micValues, int[] symbolTable) {
+        this.loadedAt = loadedAt;
+        this.exchanges = exchanges;
+        this.exchangeStarts = exchangeStarts;
+        this.unavailable = Collections.unmodifiableSet(unavailable);
+        this.data = data;
+        this.offsets = offsets;
+        this.types = types;
+        this.currencies = currencies;
+        this.mics = mics;
+        this.typeValues = typeValues;
+        this.currencyValues = currencyValues;
+        this.micValues = micValues;
+        this.symbolTable = symbolTable;
+    }
+
+    private static SymbolCatalog assemble(List<Segment> segments, Set<Exchange> unavailable, StringDictionary types,
+                                          StringDictionary currencies, StringDictionary mics) {
+        Exchange[] exchanges = new Exchange[segments.size()];
+        int[] exchangeStarts = new int[segments.size() + 1];
+
+        int size = 0;
+        int bytes = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            exchanges[i] = segment.exchange;
+            exchangeStarts[i] = size;
+            size += segment.size;
+            bytes += segment.length;
+        }
+        exchangeStarts[segments.size()] = size;
+
+        byte[] data = new byte[bytes];
+        int[] offsets = new int[size + 1];
+        short[] typeCodes = new short[size];
+        short[] currencyCodes = new short[size];
+        short[] micCodes = new short[size];
+        int record = 0;
+        int position = 0;
+        for (Segment segment : segments) {
+            System.arraycopy(segment.data, 0, data, position, segment.length);
+            System.arraycopy(segment.types, 0, typeCodes, record, segment.size);
+            System.arraycopy(segment.currencies, 0, currencyCodes, record, segment.size);
+            System.arraycopy(segment.mics, 0, micCodes, record, segment.size);
+            for (int i = 0; i < segment.size; i++) {
+                offsets[record++] = position + segment.offsets[i];
+            }
+            position += segment.length;
+        }
+        offsets[size] = position;
+
+        int[] symbolTable = new int[Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1)];
+        SymbolCatalog catalog = new SymbolCatalog(Instant.now(), exchanges, exchangeStarts, unavailable, data, offsets,
+                typeCodes, currencyCodes, micCodes, types.values(), currencies.values(), mics.values(), symbolTable);
+        catalog.indexSymbols();
+        return catalog;
+    }
+
+    /**
+     * Loads the symbol lists of every {@link Exchange}.
+     */
+    public static CompletableFuture<SymbolCatalog> load(FinnhubClient client) {
+        return load(client, EnumSet.allOf(Exchange.class));
+    }
+
+    public static CompletableFuture<SymbolCatalog> load(FinnhubClient client, Collection<Exchange> exchanges) {
+        return load(client, exchanges, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Streams the symbol lists of up to {@code parallelism} exchanges at a time, encoding each listing as it
+     * arrives so that the lists are never held as objects. An exchange the token's plan does not cover is left
+     * out and reported by {@link #getUnavailable()}; any other failure, or no exchange being available at all,
+     * fails the load. Cancelling the returned future stops it.
+     */
+    public static CompletableFuture<SymbolCatalog> load(FinnhubClient client, Collection<Exchange> exchanges,
+                                                        int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        return new Loader(client, new ArrayList<>(new LinkedHashSet<>(exchanges))).start(parallelism);
+    }
+
+    /**
+     * A catalog of symbol lists already in memory.
+     */
+    public static SymbolCatalog of(Map<Exchange, ? extends Collection<? extends EnrichedSymbol>> symbols) {
+        StringDictionary types = new StringDictionary("type");
+        StringDictionary currencies = new StringDictionary("currency");
+        StringDictionary mics = new StringDictionary("mic");
+        List<Segment> segments = new ArrayList<>();
+        symbols.forEach((exchange, list) -> {
+            Segment segment = new Segment(exchange, types, currencies, mics);
+            list.forEach(segment::add);
+            segments.add(segment);
+        });
+        return assemble(segments, Set.of(), types, currencies, mics);
+    }
+
+    /**
+     * Reads a catalog written by {@link #writeSnapshot(Path)}; empty when there is no usable snapshot. The arrays
+     * are copied out of the mapped file in bulk, so no listing is parsed.
+     */
+    public static Optional<SymbolCatalog> readSnapshot(Path path) throws IOException {
+        Optional<SnapshotInput> snapshot = SnapshotFile.read(path, SnapshotKind.SYMBOL_CATALOG);
+        if (snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+
+        SnapshotInput input = snapshot.get();
+        Instant loadedAt = Instant.ofEpochMilli(input.getLong());
+        Exchange[] exchanges;
+        Set<Exchange> unavailable = EnumSet.noneOf(Exchange.class);
+        try {
+            exchanges = Arrays.stream(input.getStrings()).map(Exchange::valueOf).toArray(Exchange[]::new);
+            for (String name : input.getStrings()) {
+                unavailable.add(Exchange.valueOf(name));
+            }
+        } catch (IllegalArgumentException e) {
+            // written by a version that knew other exchanges
+            return Optional.empty();
+        }
+        int[] exchangeStarts = input.getInts();
+        byte[] data = input.getBytes();
+        int[] offsets = input.getInts();
+        short[] types = input.getShorts();
+        short[] currencies = input.getShorts();
+        short[] mics = input.getShorts();
+        String[] typeValues = input.getStrings();
+        String[] currencyValues = input.getStrings();
+        String[] micValues = input.getStrings();
+        int[] symbolTable = input.getInts();
+        return Optional.of(new SymbolCatalog(loadedAt, exchanges, exchangeStarts, unavailable, data, offsets, types,
+                currencies, mics, typeValues, currencyValues, micValues, symbolTable));
+    }
+
+    /**
+     * Atomically replaces the snapshot at {@code path} with this catalog.
+     */
+    public void writeSnapshot(Path path) throws IOException {
+        SnapshotFile.write(path, SnapshotKind.SYMBOL_CATALOG, output -> output
+                .putLong(loadedAt.toEpochMilli())
+                .putStrings(Arrays.stream(exchanges).map(Exchange::name).toArray(String[]::new))
+                .putStrings(unavailable.stream().map(Exchange::name).toArray(String[]::new))
+                .putInts(exchangeStarts)
+                .putBytes(data, data.length)
+                .putInts(offsets)
+                .putShorts(types)
+                .putShorts(currencies)
+                .putShorts(mics)
+                .putStrings(typeValues)
+                .putStrings(currencyValues)
+                .putStrings(micValues)
+                .putInts(symbolTable));
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public List<Exchange> getExchanges() {
+        return List.of(exchanges);
+    }
+
+    /**
+     * Exchanges that were requested but which the API token is not entitled to.
+     */
+    public Set<Exchange> getUnavailable() {
+        return unavailable;
+    }
+
+    /**
+     * Approximate heap used by the encoded listings.
+     */
+    public long getEncodedBytes() {
+        return data.length + 4L * offsets.length + 2L * (types.length + currencies.length + mics.length)
+                + 4L * symbolTable.length;
+    }
+
+    /**
+     * A freshly decoded copy of the listing.
+     */
+    public EnrichedSymbol get(int index) {
+        String[] fields = decode(index);
+        EnrichedSymbol symbol = EnrichedSymbol.builder()
+                .currency(currency(index))
+                .figi(fields[FIGI])
+                .mic(mic(index))
+                .isin(fields[ISIN])
+                .shareClassFIGI(fields[SHARE_CLASS_FIGI])
+                .symbol2(fields[SYMBOL2])
+                .build();
+        symbol.setSymbol(fields[SYMBOL]);
+        symbol.setDisplaySymbol(fields[DISPLAY_SYMBOL]);
+        symbol.setDescription(fields[DESCRIPTION]);
+        symbol.setType(type(index));
+        return symbol;
+    }
+
+    public Exchange exchange(int index) {
+        checkIndex(index);
+        int segment = Arrays.binarySearch(exchangeStarts, index);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        // skip exchanges that listed nothing
+        while (exchangeStarts[segment + 1] == index) {
+            segment++;
+        }
+        return exchanges[segment];
+    }
+
+    public String symbol(int index) {
+        return field(index, SYMBOL);
+    }
+
+    public String description(int index) {
+        return field(index, DESCRIPTION);
+    }
+
+    public String type(int index) {
+        return typeValues[Short.toUnsignedInt(types[index])];
+    }
+
+    public String currency(int index) {
+        return currencyValues[Short.toUnsignedInt(currencies[index])];
+    }
+
+    public String mic(int index) {
+        return micValues[Short.toUnsignedInt(mics[index])];
+    }
+
+    /**
+     * Every listing, decoded as it is read.
+     */
+    public List<EnrichedSymbol> symbols() {
+        return new View(0, size());
+    }
+
+    /**
+     * The listings of one exchange, decoded as they are read; empty for an exchange that was not loaded.
+     */
+    public List<EnrichedSymbol> symbols(Exchange exchange) {
+        for (int i = 0; i < exchanges.length; i++) {
+            if (exchanges[i] == exchange) {
+                return new View(exchangeStarts[i], exchangeStarts[i + 1]);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * The first listing of the symbol on the exchange.
+     */
+    public Optional<EnrichedSymbol> bySymbol(Exchange exchange, String symbol) {
+        int index = indexOf(exchange, symbol);
+        return index < 0 ? Optional.empty() : Optional.of(get(index));
+    }
+
+    public int indexOf(Exchange exchange, String symbol) {
+        if (symbol == null) {
+            return -1;
+        }
+
+        byte[] key = symbol.getBytes(StandardCharsets.UTF_8);
+        int mask = symbolTable.length - 1;
+        for (int slot = hash(exchange, symbol) & mask; symbolTable[slot] != 0; slot = (slot + 1) & mask) {
+            int index = symbolTable[slot] - 1;
+            if (symbolEquals(index, key) && exchange(index) == exchange) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolCatalog[" + exchanges.length + " exchanges, " + size() + " symbols, " + getEncodedBytes()
+                + " bytes, loaded " + loadedAt + "]";
+    }
+
+    private void indexSymbols() {
+        int mask = symbolTable.length - 1;
+        for (int segment = 0; segment < exchanges.length; segment++) {
+            for (int index = exchangeStarts[segment]; index < exchangeStarts[segment + 1]; index++) {
+                String symbol = symbol(index);
+                if (symbol == null) {
+                    continue;
+                }
+
+                byte[] key = symbol.getBytes(StandardCharsets.UTF_8);
+                int slot = hash(exchanges[segment], symbol) & mask;
+                // the first listing of a symbol wins, like in SymbolIndex
+                while (symbolTable[slot] != 0 && !(symbolEquals(symbolTable[slot] - 1, key)
+                        && exchange(symbolTable[slot] - 1) == exchanges[segment])) {
+                    slot = (slot + 1) & mask;
+                }
+                if (symbolTable[slot] == 0) {
+                    symbolTable[slot] = index + 1;
+                }
+            }
+        }
+    }
+
+    private static int hash(Exchange exchange, String symbol) {
+        // exchange codes rather than ordinals, so that snapshots survive a reordered enum
+        int hash = symbol.hashCode() * 31 + exchange.code().hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean symbolEquals(int index, byte[] key) {
+        int position = offsets[index];
+        int tag = tagAt(position);
+        position += tagLength(tag);
+        return tag == key.length + LENGTH_TAG
+                && Arrays.equals(data, position, position + key.length, key, 0, key.length);
+    }
+
+    private String field(int index, int field) {
+        return decode(index, field + 1)[field];
+    }
+
+    private String[] decode(int index) {
+        return decode(index, FIELDS);
+    }
+
+    /**
+     * Decodes the first {@code count} fields of the listing.
+     */
+    private String[] decode(int index, int count) {
+        checkIndex(index);
+        String[] fields = new String[count];
+        int position = offsets[index];
+        for (int i = 0; i < count; i++) {
+            int tag = tagAt(position);
+            position += tagLength(tag);
+            if (tag == SAME_AS_SYMBOL_TAG) {
+                fields[i] = fields[SYMBOL];
+            } else if (tag >= LENGTH_TAG) {
+                fields[i] = new String(data, position, tag - LENGTH_TAG, StandardCharsets.UTF_8);
+            }
+            position += Math.max(0, tag - LENGTH_TAG);
+        }
+        return fields;
+    }
+
+    private int tagAt(int position) {
+        int tag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            tag |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return tag;
+    }
+
+    private static int tagLength(int tag) {
+        int length = 1;
+        while ((tag >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size() + " symbols");
+        }
+    }
+
+    private final class View extends AbstractList<EnrichedSymbol> {
+
+        private final int from;
+        private final int to;
+
+        private View(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public EnrichedSymbol get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size() + " symbols");
+            }
+            return SymbolCatalog.this.get(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * The listings of one exchange, encoded as they stream in. Appends come from a single stream and are not
+     * synchronized; the dictionaries are shared by all segments.
+     */
+    private static final class Segment {
+
+        private final Exchange exchange;
+        private final StringDictionary typeDictionary;
+        private final StringDictionary currencyDictionary;
+        private final StringDictionary micDictionary;
+
+        private byte[] data = new byte[4096];
+        private int length;
+        private int[] offsets = new int[64];
+        private short[] types = new short[64];
+        private short[] currencies = new short[64];
+        private short[] mics = new short[64];
+        private int size;
+
+        private Segment(Exchange exchange, StringDictionary types, StringDictionary currencies,
+                        StringDictionary mics) {
+            this.exchange = exchange;
+            this.typeDictionary = types;
+            this.currencyDictionary = currencies;
+            this.micDictionary = mics;
+        }
+
+        private void add(EnrichedSymbol symbol) {
+            if (size == offsets.length) {
+                int capacity = size * 2;
+                offsets = Arrays.copyOf(offsets, capacity);
+                types = Arrays.copyOf(types, capacity);
+                currencies = Arrays.copyOf(currencies, capacity);
+                mics = Arrays.copyOf(mics, capacity);
+            }
+
+            offsets[size] = length;
+            types[size] = typeDictionary.encode(symbol.getType());
+            currencies[size] = currencyDictionary.encode(symbol.getCurrency());
+            mics[size] = micDictionary.encode(symbol.getMic());
+            size++;
+
+            String ticker = symbol.getSymbol();
+            write(ticker, null);
+            write(symbol.getDisplaySymbol(), ticker);
+            write(symbol.getDescription(), ticker);
+            write(symbol.getFigi(), ticker);
+            write(symbol.getIsin(), ticker);
+            write(symbol.getShareClassFIGI(), ticker);
+            write(symbol.getSymbol2(), ticker);
+        }
+
+        private void write(String value, String symbol) {
+            if (value == null) {
+                writeTag(NULL_TAG);
+            } else if (value.equals(symbol)) {
+                writeTag(SAME_AS_SYMBOL_TAG);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeTag(bytes.length + LENGTH_TAG);
+                ensureCapacity(bytes.length);
+                System.arraycopy(bytes, 0, data, length, bytes.length);
+                length += bytes.length;
+            }
+        }
+
+        private void writeTag(int tag) {
+            ensureCapacity(5);
+            while ((tag & ~0x7F) != 0) {
+                data[length++] = (byte) ((tag & 0x7F) | 0x80);
+                tag >>>= 7;
+            }
+            data[length++] = (byte) tag;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+            }
+        }
+    }
+
+    private static final class Loader {
+
+        private final FinnhubClient client;
+        private final List<Exchange> exchanges;
+        private final Segment[] segments;
+        private final StringDictionary types = new StringDictionary("type");
+        private final StringDictionary currencies = new StringDictionary("currency");
+        private final StringDictionary mics = new StringDictionary("mic");
+        private final Set<Exchange> unavailable = ConcurrentHashMap.newKeySet();
+        private final Set<CompletableFuture<Long>> running = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<SymbolCatalog> result = new CompletableFuture<>();
+
+        private volatile Throwable lastUnauthorized;
+
+        private Loader(FinnhubClient client, List<Exchange> exchanges) {
+            this.client = client;
+            this.exchanges = exchanges;
+            this.segments = new Segment[exchanges.size()];
+            this.remaining = new AtomicInteger(exchanges.size());
+        }
+
+        private CompletableFuture<SymbolCatalog> start(int parallelism) {
+            result.whenComplete((catalog, error) -> running.forEach(stream -> stream.cancel(false)));
+            if (exchanges.isEmpty()) {
+                complete();
+            }
+            for (int i = 0; i < Math.min(parallelism, exchanges.size()); i++) {
+                loadNext();
+            }
+            return result;
+        }
+
+        private void loadNext() {
+            int i = next.getAndIncrement();
+            if (i >= exchanges.size() || result.isDone()) {
+                return;
+            }
+
+            Exchange exchange = exchanges.get(i);
+            Segment segment = new Segment(exchange, types, currencies, mics);
+            CompletableFuture<Long> stream;
+            try {
+                stream = client.streamSymbols(exchange, segment::add);
+            } catch (RuntimeException e) {
+                stream = CompletableFuture.failedFuture(e);
+            }
+            running.add(stream);
+            if (result.isDone()) {
+                stream.cancel(false);
+            }
+
+            CompletableFuture<Long> started = stream;
+            started.whenComplete((count, error) -> {
+                running.remove(started);
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (!(cause instanceof UnauthorizedException)) {
+                        result.completeExceptionally(cause);
+                        return;
+                    }
+                    unavailable.add(exchange);
+                    lastUnauthorized = cause;
+                } else {
+                    segments[i] = segment;
+                }
+
+                if (remaining.decrementAndGet() == 0) {
+                    complete();
+                } else {
+                    loadNext();
+                }
+            });
+        }
+
+        private void complete() {
+            List<Segment> loaded = new ArrayList<>();
+            for (Segment segment : segments) {
+                if (segment != null) {
+                    loaded.add(segment);
+                }
+            }
+            if (loaded.isEmpty() && lastUnauthorized != null) {
+                result.completeExceptionally(lastUnauthorized);
+                return;
+            }
+
+            try {
+                Set<Exchange> missing = EnumSet.noneOf(Exchange.class);
+                missing.addAll(unavailable);
+                result.complete(assemble(loaded, missing, types, currencies, mics));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
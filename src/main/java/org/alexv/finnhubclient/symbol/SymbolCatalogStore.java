@@ -0,0 +1,147 @@
+package org.alexv.finnhubclient.symbol;
+
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.model.Exchange;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps a {@link SymbolCatalog} alive across restarts. {@link #start()} maps the snapshot left by the previous
+ * run, which takes milliseconds instead of re-listing every exchange, and only goes to the network when the
+ * snapshot is missing, corrupt, older than {@code maxAge} or covers other exchanges. The catalog is then
+ * reloaded in the background every {@code refreshAfter}; each reload replaces the snapshot atomically, and a
+ * failed one keeps the previous catalog.
+ */
+public class SymbolCatalogStore implements AutoCloseable {
+
+    private final FinnhubClient client;
+    private final Path snapshot;
+    private final CatalogConfig config;
+    private final AtomicReference<CompletableFuture<SymbolCatalog>> refreshing = new AtomicReference<>();
+
+    private volatile SymbolCatalog current;
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    public SymbolCatalogStore(FinnhubClient client, Path snapshot) {
+        this(client, snapshot, CatalogConfig.defaults());
+    }
+
+    public SymbolCatalogStore(FinnhubClient client, Path snapshot, CatalogConfig config) {
+        this.client = client;
+        this.snapshot = snapshot;
+        this.config = config;
+    }
+
+    /**
+     * Completes with the snapshot's catalog when it is usable, or else with a freshly loaded one.
+     */
+    public CompletableFuture<SymbolCatalog> start() {
+        Optional<SymbolCatalog> restored;
+        try {
+            restored = SymbolCatalog.readSnapshot(snapshot).filter(this::isUsable);
+        } catch (IOException | RuntimeException e) {
+            restored = Optional.empty();
+        }
+
+        if (restored.isEmpty()) {
+            return refresh().thenApply(catalog -> {
+                schedule(config.getRefreshAfter());
+                return catalog;
+            });
+        }
+
+        current = restored.get();
+        Duration age = Duration.between(current.getLoadedAt(), Instant.now());
+        schedule(config.getRefreshAfter().minus(age));
+        return CompletableFuture.completedFuture(current);
+    }
+
+    /**
+     * The catalog in use, {@code null} until {@link #start()} completed.
+     */
+    public SymbolCatalog current() {
+        return current;
+    }
+
+    public Path getSnapshotPath() {
+        return snapshot;
+    }
+
+    /**
+     * Reloads every exchange and replaces both the catalog and the snapshot; a refresh already under way is
+     * joined rather than started twice. The symbol endpoint has no delta query, so this re-lists each exchange.
+     * Failing to write the snapshot fails the returned future, but the new catalog is in use by then.
+     */
+    public CompletableFuture<SymbolCatalog> refresh() {
+        CompletableFuture<SymbolCatalog> created = new CompletableFuture<>();
+        CompletableFuture<SymbolCatalog> existing = refreshing.compareAndExchange(null, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        SymbolCatalog.load(client, config.getExchanges(), config.getParallelism()).whenComplete((catalog, error) -> {
+            refreshing.set(null);
+            if (error != null) {
+                created.completeExceptionally(error);
+                return;
+            }
+
+            current = catalog;
+            try {
+                catalog.writeSnapshot(snapshot);
+            } catch (IOException e) {
+                created.completeExceptionally(new UncheckedIOException(e));
+                return;
+            }
+            created.complete(catalog);
+        });
+        return created;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private boolean isUsable(SymbolCatalog catalog) {
+        if (catalog.getLoadedAt().isBefore(Instant.now().minus(config.getMaxAge()))) {
+            return false;
+        }
+
+        Set<Exchange> covered = EnumSet.noneOf(Exchange.class);
+        covered.addAll(catalog.getExchanges());
+        covered.addAll(catalog.getUnavailable());
+        return covered.equals(config.getExchanges());
+    }
+
+    private synchronized void schedule(Duration firstDelay) {
+        Duration period = config.getRefreshAfter();
+        if (closed || scheduler != null || period.isZero() || period.isNegative()) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "finnhub-symbol-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delay = Math.max(0, firstDelay.toNanos());
+        scheduler.scheduleAtFixedRate(this::refresh, delay, period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
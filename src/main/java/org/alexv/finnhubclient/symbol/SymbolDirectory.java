@@ -0,0 +1,192 @@
+package org.alexv.finnhubclient.symbol;
+
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.model.EnrichedSymbol;
+import org.alexv.finnhubclient.model.Exchange;
+import org.alexv.finnhubclient.model.SymbolLookup;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the symbol list of an exchange once, on first use, and answers identifier lookups from a
+ * local {@link SymbolIndex}. Loaded exchanges are reloaded in the background every refresh interval;
+ * lookups keep using the previous snapshot until the new one is complete, and a failed reload keeps it.
+ * <p>
+ * Once closed, lookups fail with an {@link IllegalStateException}, and loads still in flight are dropped.
+ */
+public class SymbolDirectory implements AutoCloseable {
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofDays(1);
+
+    private final FinnhubClient client;
+    private final Duration refreshInterval;
+    private final ConcurrentMap<Exchange, CompletableFuture<SymbolIndex>> indexes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Set<Exchange>, CompletableFuture<TypeaheadIndex>> typeaheads = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    public SymbolDirectory(FinnhubClient client) {
+        this(client, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    public SymbolDirectory(FinnhubClient client, Duration refreshInterval) {
+        this.client = client;
+        this.refreshInterval = refreshInterval;
+    }
+
+    public CompletableFuture<SymbolIndex> index(Exchange exchange) {
+        if (closed) {
+            return CompletableFuture.failedFuture(closedException());
+        }
+        CompletableFuture<SymbolIndex> existing = indexes.get(exchange);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<SymbolIndex> created = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(closedException());
+            }
+            existing = indexes.putIfAbsent(exchange, created);
+        }
+        if (existing != null) {
+            return existing;
+        }
+
+        load(exchange).whenComplete((index, error) -> {
+            if (error != null || closed) {
+                // forget the failure so that the next lookup tries again
+                indexes.remove(exchange, created);
+                created.completeExceptionally(error != null ? error : closedException());
+            } else {
+                created.complete(index);
+                scheduleRefresh(exchange);
+            }
+        });
+        return created;
+    }
+
+    public CompletableFuture<SymbolIndex> refresh(Exchange exchange) {
+        if (closed) {
+            return CompletableFuture.failedFuture(closedException());
+        }
+        return load(exchange).thenApply(index -> {
+            synchronized (this) {
+                if (closed) {
+                    throw closedException();
+                }
+                indexes.put(exchange, CompletableFuture.completedFuture(index));
+                typeaheads.keySet().removeIf(exchanges -> exchanges.contains(exchange));
+                return index;
+            }
+        });
+    }
+
+    /**
+     * A typeahead index over the symbols of all the exchanges, built once their lists are loaded and rebuilt
+     * after any of them is refreshed.
+     */
+    public CompletableFuture<TypeaheadIndex> typeahead(Collection<Exchange> exchanges) {
+        Set<Exchange> key = Set.copyOf(exchanges);
+        CompletableFuture<TypeaheadIndex> existing = typeaheads.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<TypeaheadIndex> created = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(closedException());
+            }
+            existing = typeaheads.putIfAbsent(key, created);
+        }
+        if (existing != null) {
+            return existing;
+        }
+
+        List<CompletableFuture<SymbolIndex>> loads = key.stream().map(this::index).toList();
+        CompletableFuture.allOf(loads.toArray(CompletableFuture<?>[]::new)).whenComplete((ignored, error) -> {
+            if (error != null || closed) {
+                typeaheads.remove(key, created);
+                created.completeExceptionally(error != null ? error : closedException());
+            } else {
+                created.complete(TypeaheadIndex.over(loads.stream().map(CompletableFuture::join).toList()));
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Answers like the remote {@code searchSymbol}, from a local {@link TypeaheadIndex} over the exchanges.
+     */
+    public CompletableFuture<SymbolLookup> search(String query, Collection<Exchange> exchanges) {
+        return typeahead(exchanges).thenApply(index -> index.search(query));
+    }
+
+    public CompletableFuture<Optional<EnrichedSymbol>> findBySymbol(Exchange exchange, String symbol) {
+        return index(exchange).thenApply(index -> index.bySymbol(symbol));
+    }
+
+    public CompletableFuture<Optional<EnrichedSymbol>> findByFigi(Exchange exchange, String figi) {
+        return index(exchange).thenApply(index -> index.byFigi(figi));
+    }
+
+    public CompletableFuture<Optional<EnrichedSymbol>> findByIsin(Exchange exchange, String isin) {
+        return index(exchange).thenApply(index -> index.byIsin(isin));
+    }
+
+    public CompletableFuture<List<EnrichedSymbol>> findByShareClassFigi(Exchange exchange, String shareClassFigi) {
+        return index(exchange).thenApply(index -> index.byShareClassFigi(shareClassFigi));
+    }
+
+    public CompletableFuture<List<EnrichedSymbol>> findByMic(Exchange exchange, String mic) {
+        return index(exchange).thenApply(index -> index.byMic(mic));
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        indexes.clear();
+        typeaheads.clear();
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("Symbol directory is closed");
+    }
+
+    private CompletableFuture<SymbolIndex> load(Exchange exchange) {
+        SymbolIndex.Builder builder = SymbolIndex.builder(exchange);
+        return client.streamSymbols(exchange, builder::add).thenApply(count -> builder.build());
+    }
+
+    private synchronized void scheduleRefresh(Exchange exchange) {
+        if (closed || refreshInterval.isZero() || refreshInterval.isNegative()) {
+            return;
+        }
+
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "finnhub-symbol-directory");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long period = refreshInterval.toNanos();
+        scheduler.scheduleAtFixedRate(() -> refresh(exchange), period, period, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,127 @@
+package org.alexv.finnhubclient.symbol;
+
+import org.alexv.finnhubclient.model.EnrichedSymbol;
+import org.alexv.finnhubclient.model.Exchange;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of one exchange's symbol list with hash indexes on its identifiers.
+ * Symbol, FIGI and ISIN identify a single listing; share class FIGI and MIC group several.
+ * Every caller gets the same {@link EnrichedSymbol} objects, which must not be changed.
+ */
+public final class SymbolIndex {
+
+    private final Exchange exchange;
+    private final Instant loadedAt;
+    private final List<EnrichedSymbol> symbols;
+    private final Map<String, EnrichedSymbol> bySymbol;
+    private final Map<String, EnrichedSymbol> byFigi;
+    private final Map<String, EnrichedSymbol> byIsin;
+    private final Map<String, List<EnrichedSymbol>> byShareClassFigi;
+    private final Map<String, List<EnrichedSymbol>> byMic;
+
+    private SymbolIndex(Builder builder) {
+        this.exchange = builder.exchange;
+        this.loadedAt = Instant.now();
+        this.symbols = Collections.unmodifiableList(builder.symbols);
+        this.bySymbol = builder.bySymbol;
+        this.byFigi = builder.byFigi;
+        this.byIsin = builder.byIsin;
+        this.byShareClassFigi = builder.byShareClassFigi;
+        this.byMic = builder.byMic;
+    }
+
+    static Builder builder(Exchange exchange) {
+        return new Builder(exchange);
+    }
+
+    public Exchange getExchange() {
+        return exchange;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public List<EnrichedSymbol> getSymbols() {
+        return symbols;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    public Optional<EnrichedSymbol> bySymbol(String symbol) {
+        return Optional.ofNullable(bySymbol.get(symbol));
+    }
+
+    public Optional<EnrichedSymbol> byFigi(String figi) {
+        return Optional.ofNullable(byFigi.get(figi));
+    }
+
+    public Optional<EnrichedSymbol> byIsin(String isin) {
+        return Optional.ofNullable(byIsin.get(isin));
+    }
+
+    public List<EnrichedSymbol> byShareClassFigi(String shareClassFigi) {
+        return byShareClassFigi.getOrDefault(shareClassFigi, List.of());
+    }
+
+    public List<EnrichedSymbol> byMic(String mic) {
+        return byMic.getOrDefault(mic, List.of());
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolIndex[" + exchange + ", " + symbols.size() + " symbols, loaded " + loadedAt + "]";
+    }
+
+    static final class Builder {
+
+        private final Exchange exchange;
+        private final List<EnrichedSymbol> symbols = new ArrayList<>();
+        private final Map<String, EnrichedSymbol> bySymbol = new HashMap<>();
+        private final Map<String, EnrichedSymbol> byFigi = new HashMap<>();
+        private final Map<String, EnrichedSymbol> byIsin = new HashMap<>();
+        private final Map<String, List<EnrichedSymbol>> byShareClassFigi = new HashMap<>();
+        private final Map<String, List<EnrichedSymbol>> byMic = new HashMap<>();
+
+        private Builder(Exchange exchange) {
+            this.exchange = exchange;
+        }
+
+        void add(EnrichedSymbol symbol) {
+            symbols.add(symbol);
+            unique(bySymbol, symbol.getSymbol(), symbol);
+            unique(byFigi, symbol.getFigi(), symbol);
+            unique(byIsin, symbol.getIsin(), symbol);
+            grouped(byShareClassFigi, symbol.getShareClassFIGI(), symbol);
+            grouped(byMic, symbol.getMic(), symbol);
+        }
+
+        SymbolIndex build() {
+            byShareClassFigi.replaceAll((key, group) -> Collections.unmodifiableList(group));
+            byMic.replaceAll((key, group) -> Collections.unmodifiableList(group));
+            return new SymbolIndex(this);
+        }
+
+        private static void unique(Map<String, EnrichedSymbol> index, String key, EnrichedSymbol symbol) {
+            if (key != null && !key.isEmpty()) {
+                index.putIfAbsent(key, symbol);
+            }
+        }
+
+        private static void grouped(Map<String, List<EnrichedSymbol>> index, String key, EnrichedSymbol symbol) {
+            if (key != null && !key.isEmpty()) {
+                index.computeIfAbsent(key, ignored -> new ArrayList<>()).add(symbol);
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package org.alexv.finnhubclient.symbol;
+
+import org.alexv.finnhubclient.model.EnrichedSymbol;
+import org.alexv.finnhubclient.model.Symbol;
+import org.alexv.finnhubclient.model.SymbolLookup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable in-memory search over symbol lists, answering {@code searchSymbol}-style queries locally. Matches are
+ * ranked in tiers: exact symbol, symbol prefix, whole words of the description, word prefixes of the description,
+ * and any substring of the description (via trigrams). Within a tier common stock ranks before ADRs, ETPs and the
+ * other types, then shorter symbols first. Lower tiers are only searched while the higher ones have not filled the
+ * result, which keeps short, broad queries as cheap as long ones. Symbols also match without their punctuation.
+ * Results hold the indexed {@link EnrichedSymbol} objects themselves, in unmodifiable lists; they must not be changed.
+ */
+public final class TypeaheadIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    private static final List<String> TYPE_ORDER = List.of("Common Stock", "ADR", "ETP", "REIT", "GDR",
+            "NY Reg Shrs", "Preference", "Closed-End Fund", "Open-End Fund", "MLP", "Ltd Part", "Unit", "Right",
+            "Warrant");
+
+    private static final int[] NONE = new int[0];
+
+    private final EnrichedSymbol[] entries;
+    private final String[] descriptions;
+    private final Map<String, int[]> exact;
+    private final String[] prefixKeys;
+    private final int[] prefixIds;
+    private final String[] words;
+    private final int[][] wordPostings;
+    private final Map<String, int[]> trigrams;
+
+    /**
+     * Entries are numbered in ranking order, so every posting list is already sorted best first and each tier
+     * only has to take its first ids.
+     */
+    private TypeaheadIndex(List<EnrichedSymbol> symbols) {
+        symbols.sort(Comparator.<EnrichedSymbol>comparingInt(symbol -> typeRank(symbol.getType()))
+                .thenComparingInt(symbol -> upper(symbol.getSymbol()).length())
+                .thenComparing(symbol -> upper(symbol.getSymbol())));
+
+        int size = symbols.size();
+        this.entries = symbols.toArray(EnrichedSymbol[]::new);
+        this.descriptions = new String[size];
+
+        Map<String, List<Integer>> exactIds = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        List<Integer> keyIds = new ArrayList<>();
+        TreeMap<String, List<Integer>> wordIds = new TreeMap<>();
+        Map<String, List<Integer>> trigramIds = new HashMap<>();
+
+        for (int id = 0; id < size; id++) {
+            EnrichedSymbol entry = entries[id];
+            String symbol = upper(entry.getSymbol());
+            String display = upper(entry.getDisplaySymbol());
+            descriptions[id] = normalize(entry.getDescription());
+
+            Set<String> symbolKeys = new LinkedHashSet<>(List.of(symbol, display, compact(symbol), compact(display)));
+            for (String key : symbolKeys) {
+                if (!key.isEmpty()) {
+                    add(exactIds, key, id);
+                    keys.add(key);
+                    keyIds.add(id);
+                }
+            }
+            for (String word : words(descriptions[id])) {
+                add(wordIds, word, id);
+            }
+            String description = descriptions[id];
+            for (int i = 0; i + 3 <= description.length(); i++) {
+                add(trigramIds, description.substring(i, i + 3), id);
+            }
+        }
+
+        this.exact = new HashMap<>();
+        exactIds.forEach((key, ids) -> exact.put(key, toArray(ids)));
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keys::get));
+        this.prefixKeys = new String[order.length];
+        this.prefixIds = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            prefixKeys[i] = keys.get(order[i]);
+            prefixIds[i] = keyIds.get(order[i]);
+        }
+
+        this.words = wordIds.keySet().toArray(String[]::new);
+        this.wordPostings = new int[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            wordPostings[i] = toArray(wordIds.get(words[i]));
+        }
+
+        this.trigrams = new HashMap<>();
+        trigramIds.forEach((trigram, ids) -> trigrams.put(trigram, toArray(ids)));
+    }
+
+    public static TypeaheadIndex of(Collection<? extends EnrichedSymbol> symbols) {
+        return new TypeaheadIndex(new ArrayList<>(symbols));
+    }
+
+    /**
+     * An index over all symbols of the given exchange snapshots.
+     */
+    public static TypeaheadIndex over(Collection<SymbolIndex> indexes) {
+        List<EnrichedSymbol> symbols = new ArrayList<>();
+        for (SymbolIndex index : indexes) {
+            symbols.addAll(index.getSymbols());
+        }
+        return new TypeaheadIndex(symbols);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public SymbolLookup search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    /**
+     * The best {@code limit} matches, in the shape of the remote symbol search.
+     */
+    public SymbolLookup search(String query, int limit) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty() || limit <= 0) {
+            return new SymbolLookup(List.of(), 0);
+        }
+
+        Results results = new Results(limit);
+        String upper = upper(trimmed);
+        String compact = compact(upper);
+
+        results.addAll(exact.getOrDefault(upper, NONE));
+        results.addAll(exact.getOrDefault(compact, NONE));
+        if (!results.isFull()) {
+            BitSet prefixed = symbolPrefixes(upper);
+            if (!compact.isEmpty() && !compact.equals(upper)) {
+                prefixed.or(symbolPrefixes(compact));
+            }
+            results.addAll(prefixed);
+        }
+
+        String normalized = normalize(trimmed);
+        List<String> queryWords = words(normalized);
+        if (!results.isFull() && !queryWords.isEmpty()) {
+            results.addAll(wholeWords(queryWords));
+        }
+        if (!results.isFull() && !queryWords.isEmpty()) {
+            results.addAll(wordPrefixes(queryWords));
+        }
+        if (!results.isFull() && normalized.length() >= 3) {
+            addSubstrings(normalized, results);
+        }
+
+        return new SymbolLookup(Collections.unmodifiableList(results.symbols), results.symbols.size());
+    }
+
+    private BitSet symbolPrefixes(String prefix) {
+        BitSet ids = new BitSet(entries.length);
+        for (int i = lowerBound(prefixKeys, prefix); i < prefixKeys.length && prefixKeys[i].startsWith(prefix); i++) {
+            ids.set(prefixIds[i]);
+        }
+        return ids;
+    }
+
+    private BitSet wholeWords(List<String> queryWords) {
+        BitSet matches = null;
+        for (String word : queryWords) {
+            BitSet ids = new BitSet(entries.length);
+            int index = Arrays.binarySearch(words, word);
+            if (index >= 0) {
+                for (int id : wordPostings[index]) {
+                    ids.set(id);
+                }
+            }
+            matches = and(matches, ids);
+        }
+        return matches;
+    }
+
+    private BitSet wordPrefixes(List<String> queryWords) {
+        BitSet matches = null;
+        for (String word : queryWords) {
+            BitSet ids = new BitSet(entries.length);
+            for (int i = lowerBound(words, word); i < words.length && words[i].startsWith(word); i++) {
+                for (int id : wordPostings[i]) {
+                    ids.set(id);
+                }
+            }
+            matches = and(matches, ids);
+        }
+        return matches;
+    }
+
+    private void addSubstrings(String normalized, Results results) {
+        int[] candidates = null;
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            int[] postings = trigrams.get(normalized.substring(i, i + 3));
+            if (postings == null) {
+                return;
+            }
+            if (candidates == null || postings.length < candidates.length) {
+                candidates = postings;
+            }
+        }
+
+        // verify against the shortest posting list rather than intersecting them all
+        for (int id : candidates) {
+            if (results.isFull()) {
+                return;
+            }
+            if (descriptions[id].contains(normalized)) {
+                results.add(id);
+            }
+        }
+    }
+
+    private static BitSet and(BitSet matches, BitSet ids) {
+        if (matches == null) {
+            return ids;
+        }
+        matches.and(ids);
+        return matches;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int typeRank(String type) {
+        int rank = type == null ? -1 : TYPE_ORDER.indexOf(type);
+        return rank < 0 ? TYPE_ORDER.size() : rank;
+    }
+
+    private static String upper(String value) {
+        return value == null ? "" : value.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * The symbol without punctuation, so that "BRK B" and "BRKB" find BRK.B.
+     */
+    private static String compact(String symbol) {
+        StringBuilder compact = new StringBuilder(symbol.length());
+        for (int i = 0; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                compact.append(c);
+            }
+        }
+        return compact.toString();
+    }
+
+    /**
+     * Lower case with every run of non-alphanumeric characters collapsed into one space.
+     */
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean space = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        return length > 0 && normalized.charAt(length - 1) == ' ' ? normalized.substring(0, length - 1) : normalized.toString();
+    }
+
+    private static List<String> words(String normalized) {
+        return normalized.isEmpty() ? List.of() : List.of(normalized.split(" "));
+    }
+
+    private static void add(Map<String, List<Integer>> index, String key, int id) {
+        List<Integer> ids = index.computeIfAbsent(key, ignored -> new ArrayList<>());
+        if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+            ids.add(id);
+        }
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        int[] array = new int[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * The matches so far, best first; a tier only adds the ids that no better tier took.
+     */
+    private final class Results {
+
+        private final int limit;
+        private final BitSet taken = new BitSet();
+        private final List<Symbol> symbols = new ArrayList<>();
+
+        private Results(int limit) {
+            this.limit = limit;
+        }
+
+        private boolean isFull() {
+            return symbols.size() >= limit;
+        }
+
+        private void add(int id) {
+            if (!isFull() && !taken.get(id)) {
+                taken.set(id);
+                symbols.add(entries[id]);
+            }
+        }
+
+        private void addAll(int[] ids) {
+            for (int i = 0; i < ids.length && !isFull(); i++) {
+                add(ids[i]);
+            }
+        }
+
+        private void addAll(BitSet ids) {
+            for (int id = ids.nextSetBit(0); id >= 0 && !isFull(); id = ids.nextSetBit(id + 1)) {
+                add(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.alexv.finnhubclient.backfill;
+
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.client.FinnhubException;
+import org.alexv.finnhubclient.model.CandleSeries;
+import org.alexv.finnhubclient.model.Resolution;
+import org.alexv.finnhubclient.ratelimit.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandleBackfillTest {
+
+    private static final long DAY = 86_400;
+
+    @Test
+    void firstFailedWindowCancelsTheOthers() throws Exception {
+        List<CompletableFuture<CandleSeries>> calls = new CopyOnWriteArrayList<>();
+        FinnhubClient client = new FinnhubClient() {
+            @Override
+            public CompletableFuture<CandleSeries> getCandleSeries(String symbol, String resolution, long startEpoch,
+                                                                   long endEpoch, Priority priority) {
+                CompletableFuture<CandleSeries> call = new CompletableFuture<>();
+                calls.add(call);
+                return call;
+            }
+        };
+        CandleBackfill backfill = new CandleBackfill(client, BackfillConfig.builder()
+                .maxConcurrency(2)
+                .barsPerWindow(10)
+                .build());
+
+        CompletableFuture<CandleSeries> result = backfill.backfill("AAPL", Resolution.DAY, 0, 100 * DAY - 1);
+        assertEquals(2, calls.size());
+        assertEquals(8, backfill.pendingWindows());
+
+        calls.get(0).completeExceptionally(new FinnhubException(422, "Invalid resolution"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(422, assertInstanceOf(FinnhubException.class, error.getCause()).getStatusCode());
+        assertTrue(calls.get(1).isCancelled(), "the running window is cancelled");
+        for (int i = 0; i < 50 && backfill.activeWindows() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, backfill.activeWindows());
+        assertEquals(0, backfill.pendingWindows());
+        assertEquals(2, calls.size(), "no waiting window is started");
+    }
+}
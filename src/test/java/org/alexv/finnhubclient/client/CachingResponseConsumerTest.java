@@ -0,0 +1,108 @@
+package org.alexv.finnhubclient.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.alexv.finnhubclient.cache.DiskCacheConfig;
+import org.alexv.finnhubclient.cache.DiskResponseCache;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingResponseConsumerTest {
+
+    private static final String PROFILE = "{\"name\":\"Apple Inc\",\"ticker\":\"AAPL\"}";
+
+    @TempDir
+    Path directory;
+
+    private FinnhubClient client;
+
+    @AfterEach
+    void close() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void notModifiedReplaysAnEntryEvictedAfterLookup() throws Exception {
+        assertRevalidates(CachingResponseConsumerTest::deleteEntries);
+    }
+
+    @Test
+    void notModifiedReplaysTheLookedUpEntryWhenItWasReplaced() throws Exception {
+        assertRevalidates(CachingResponseConsumerTest::replaceEntries);
+    }
+
+    private void assertRevalidates(Consumer<Path> beforeNotModified) throws Exception {
+        StubHttpClient http = new StubHttpClient(request -> {
+            if (StubHttpClient.header(request, HttpHeaders.IF_NONE_MATCH) == null) {
+                return new StubHttpClient.Answer(200, PROFILE, Map.of(HttpHeaders.ETAG, "\"v1\""));
+            }
+            // another process evicts or rewrites the entry while the request is out
+            beforeNotModified.accept(directory);
+            return new StubHttpClient.Answer(304, null);
+        });
+        client = client(http);
+
+        assertEquals("Apple Inc", client.getCompanyProfile("AAPL").get(5, TimeUnit.SECONDS).getName());
+        Thread.sleep(20);
+        assertEquals("Apple Inc", client.getCompanyProfile("AAPL").get(5, TimeUnit.SECONDS).getName());
+
+        assertEquals(2, http.requests().size());
+        assertEquals("\"v1\"", StubHttpClient.header(http.requests().get(1), HttpHeaders.IF_NONE_MATCH));
+    }
+
+    private FinnhubClient client(StubHttpClient http) {
+        FinnhubClient client = new FinnhubClient(http, "token", new ObjectMapper());
+        client.setCallOptions(CallOptions.builder().retry(RetryPolicy.none()).build());
+        client.setDiskCache(new DiskResponseCache(DiskCacheConfig.builder()
+                .directory(directory)
+                .ttl(Endpoint.COMPANY_PROFILE, Duration.ofMillis(1))
+                .build()));
+        return client;
+    }
+
+    private static void deleteEntries(Path directory) {
+        for (Path entry : entries(directory)) {
+            try {
+                Files.delete(entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void replaceEntries(Path directory) {
+        for (Path entry : entries(directory)) {
+            try {
+                Path replacement = Files.createTempFile(directory, "replacement", ".tmp");
+                Files.write(replacement, new byte[]{'x', 'y', 'z'});
+                Files.move(replacement, entry, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static Path[] entries(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".entry")).toArray(Path[]::new);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.alexv.finnhubclient.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GzipDecoderTest {
+
+    private static final String BODY = "{\"result\":[" + "{\"symbol\":\"AAPL\",\"type\":\"Common Stock\"},".repeat(500)
+            + "{}]}";
+
+    @Test
+    void decodesAMemberWhateverTheChunkSize() throws IOException {
+        byte[] member = gzip(BODY);
+        for (int chunk : new int[]{1, 3, 7, 11, member.length}) {
+            assertEquals(BODY, decode(member, chunk), "chunks of " + chunk);
+        }
+    }
+
+    @Test
+    void skipsExtraFieldFileNameAndCommentSplitAcrossChunks() throws IOException {
+        byte[] member = member(BODY, Arrays.copyOf(new byte[]{'A', 'P'}, 300), "quotes.json", "daily dump");
+        for (int chunk : new int[]{1, 2, 5, 64, member.length}) {
+            assertEquals(BODY, decode(member, chunk), "chunks of " + chunk);
+        }
+    }
+
+    @Test
+    void failsWhenTheDeflateStreamIsCutShort() throws IOException {
+        byte[] member = gzip(BODY);
+        ZipException error = assertThrows(ZipException.class,
+                () -> decode(Arrays.copyOf(member, member.length / 2), 16));
+        assertEquals("Truncated gzip stream", error.getMessage());
+    }
+
+    @Test
+    void failsWhenTheTrailerIsCutShort() throws IOException {
+        byte[] member = gzip(BODY);
+        ZipException error = assertThrows(ZipException.class,
+                () -> decode(Arrays.copyOf(member, member.length - 3), 16));
+        assertEquals("Truncated gzip trailer", error.getMessage());
+    }
+
+    @Test
+    void failsOnHeaderOnly() throws IOException {
+        byte[] member = member(BODY, null, "quotes.json", null);
+        assertThrows(ZipException.class, () -> decode(Arrays.copyOf(member, 15), 4));
+    }
+
+    @Test
+    void rejectsACorruptTrailer() throws IOException {
+        byte[] badCrc = gzip(BODY);
+        badCrc[badCrc.length - 8] ^= 1;
+        assertThrows(ZipException.class, () -> decode(badCrc, 16));
+
+        byte[] badSize = gzip(BODY);
+        badSize[badSize.length - 1] ^= 1;
+        assertThrows(ZipException.class, () -> decode(badSize, badSize.length));
+    }
+
+    @Test
+    void rejectsDataAfterTheMember() throws IOException {
+        byte[] member = gzip(BODY);
+        byte[] padded = Arrays.copyOf(member, member.length + 1);
+        assertThrows(ZipException.class, () -> decode(padded, padded.length));
+    }
+
+    private static String decode(byte[] member, int chunk) throws IOException {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        GzipDecoder decoder = new GzipDecoder();
+        try {
+            for (int offset = 0; offset < member.length; offset += chunk) {
+                ByteBuffer src = ByteBuffer.wrap(member, offset, Math.min(chunk, member.length - offset));
+                decoder.decode(src, buffer -> decoded.write(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                        buffer.remaining()));
+                assertEquals(0, src.remaining());
+            }
+            decoder.finish();
+        } finally {
+            decoder.close();
+        }
+        return decoded.toString(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * A member with the optional header fields that are not {@code null}.
+     */
+    private static byte[] member(String body, byte[] extra, String name, String comment) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream member = new ByteArrayOutputStream();
+        int flags = (extra != null ? 4 : 0) | (name != null ? 8 : 0) | (comment != null ? 16 : 0);
+        member.writeBytes(new byte[]{0x1f, (byte) 0x8b, 8, (byte) flags, 0, 0, 0, 0, 0, (byte) 0xff});
+        if (extra != null) {
+            member.write(extra.length & 0xff);
+            member.write(extra.length >>> 8);
+            member.writeBytes(extra);
+        }
+        if (name != null) {
+            member.writeBytes(name.getBytes(StandardCharsets.ISO_8859_1));
+            member.write(0);
+        }
+        if (comment != null) {
+            member.writeBytes(comment.getBytes(StandardCharsets.ISO_8859_1));
+            member.write(0);
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(bytes);
+        deflater.finish();
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            member.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        member.writeBytes(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt((int) crc.getValue()).putInt(bytes.length).array());
+        return member.toByteArray();
+    }
+}
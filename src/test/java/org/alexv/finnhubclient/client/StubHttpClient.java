@@ -0,0 +1,158 @@
+package org.alexv.finnhubclient.client;
+
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.BasicFuture;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.function.Supplier;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.impl.BasicEntityDetails;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncPushConsumer;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.HandlerFactory;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import org.apache.hc.core5.util.TimeValue;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Answers every request synchronously on the calling thread, without a network, and records the requests.
+ */
+class StubHttpClient extends CloseableHttpAsyncClient {
+
+    /**
+     * A response; {@code body} is {@code null} for one without content.
+     */
+    record Answer(int status, String body, Map<String, String> headers) {
+
+        Answer(int status, String body) {
+            this(status, body, Map.of());
+        }
+    }
+
+    private final Function<HttpRequest, Answer> server;
+    private final List<HttpRequest> requests = new CopyOnWriteArrayList<>();
+
+    StubHttpClient(Function<HttpRequest, Answer> server) {
+        this.server = server;
+    }
+
+    List<HttpRequest> requests() {
+        return requests;
+    }
+
+    static String path(HttpRequest request) {
+        return uri(request).getPath();
+    }
+
+    static String token(HttpRequest request) {
+        for (String parameter : uri(request).getRawQuery().split("&")) {
+            if (parameter.startsWith("token=")) {
+                return parameter.substring("token=".length());
+            }
+        }
+        return null;
+    }
+
+    static String header(HttpRequest request, String name) {
+        Header header = request.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static URI uri(HttpRequest request) {
+        try {
+            return request.getUri();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    protected <T> Future<T> doExecute(HttpHost target, AsyncRequestProducer requestProducer,
+                                      AsyncResponseConsumer<T> responseConsumer,
+                                      HandlerFactory<AsyncPushConsumer> pushHandlerFactory, HttpContext context,
+                                      FutureCallback<T> callback) {
+        BasicFuture<T> future = new BasicFuture<>(callback);
+        try {
+            HttpRequest[] sent = new HttpRequest[1];
+            requestProducer.sendRequest((request, entityDetails, requestContext) -> sent[0] = request, context);
+            requests.add(sent[0]);
+
+            Answer answer = server.apply(sent[0]);
+            BasicHttpResponse response = new BasicHttpResponse(answer.status());
+            answer.headers().forEach(response::setHeader);
+            byte[] body = answer.body() == null ? null : answer.body().getBytes(StandardCharsets.UTF_8);
+            responseConsumer.consumeResponse(response,
+                    body == null ? null : new BasicEntityDetails(body.length, ContentType.APPLICATION_JSON), context,
+                    new FutureCallback<T>() {
+                        @Override
+                        public void completed(T result) {
+                            future.completed(result);
+                        }
+
+                        @Override
+                        public void failed(Exception e) {
+                            future.failed(e);
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            future.cancel();
+                        }
+                    });
+            if (body != null) {
+                responseConsumer.consume(ByteBuffer.wrap(body));
+                responseConsumer.streamEnd(null);
+            }
+        } catch (Exception e) {
+            responseConsumer.failed(e);
+            future.failed(e);
+        } finally {
+            responseConsumer.releaseResources();
+        }
+        return future;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public IOReactorStatus getStatus() {
+        return IOReactorStatus.ACTIVE;
+    }
+
+    @Override
+    public void awaitShutdown(TimeValue waitTime) {
+    }
+
+    @Override
+    public void initiateShutdown() {
+    }
+
+    @Override
+    public void register(String hostname, String uriPattern, Supplier<AsyncPushConsumer> supplier) {
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,75 @@
+package org.alexv.finnhubclient.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.alexv.finnhubclient.model.Quote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenPoolTest {
+
+    private static final String QUOTE = "{\"c\":10.5,\"d\":0.5,\"dp\":5,\"h\":11,\"l\":10,\"o\":10,\"pc\":10,\"t\":1700000000}";
+
+    private FinnhubClient client;
+
+    @AfterEach
+    void close() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void forbiddenFailsTheCallAndKeepsTheTokenHealthy() throws Exception {
+        StubHttpClient http = new StubHttpClient(request -> StubHttpClient.path(request).endsWith("/stock/profile2")
+                ? new StubHttpClient.Answer(403, "{\"error\":\"You don't have access to this resource.\"}")
+                : new StubHttpClient.Answer(200, QUOTE));
+        TokenPool pool = TokenPool.of("first-token", "second-token");
+        client = client(http, pool);
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client.getCompanyProfile("AAPL").get(5, TimeUnit.SECONDS));
+        FinnhubException cause = assertInstanceOf(FinnhubException.class, error.getCause());
+        assertEquals(403, cause.getStatusCode());
+        assertEquals(1, http.requests().size(), "a 403 must not fail over to the next token");
+        assertStates(pool, TokenState.HEALTHY, TokenState.HEALTHY);
+
+        Quote quote = client.getQuote("AAPL").get(5, TimeUnit.SECONDS);
+        assertEquals(10.5, quote.getCurrentPrice());
+    }
+
+    @Test
+    void unauthorizedBenchesTheTokenAndFailsOver() throws Exception {
+        StubHttpClient http = new StubHttpClient(request -> "first-token".equals(StubHttpClient.token(request))
+                ? new StubHttpClient.Answer(401, "{\"error\":\"Invalid API key\"}")
+                : new StubHttpClient.Answer(200, QUOTE));
+        TokenPool pool = TokenPool.of("first-token", "second-token");
+        client = client(http, pool);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(10.5, client.getQuote("SYM" + i).get(5, TimeUnit.SECONDS).getCurrentPrice());
+        }
+        assertStates(pool, TokenState.UNAUTHORIZED, TokenState.HEALTHY);
+        long rejected = http.requests().stream().filter(request -> "first-token".equals(StubHttpClient.token(request))).count();
+        assertEquals(1, rejected, "a benched token must not be tried again");
+    }
+
+    private static FinnhubClient client(StubHttpClient http, TokenPool pool) {
+        FinnhubClient client = new FinnhubClient(http, "unused", new ObjectMapper());
+        client.setTokenPool(pool);
+        client.setCallOptions(CallOptions.builder().retry(RetryPolicy.none()).build());
+        return client;
+    }
+
+    private static void assertStates(TokenPool pool, TokenState... states) {
+        List<TokenState> actual = pool.getStats().stream().map(TokenStats::getState).toList();
+        assertEquals(List.of(states), actual);
+    }
+}
@@ -0,0 +1,72 @@
+package org.alexv.finnhubclient.store;
+
+import org.alexv.finnhubclient.model.CandleSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CandleStoreTest {
+
+    private static final long DAY = 86_400;
+    private static final long LISTED = 100 * DAY;
+
+    @TempDir
+    Path directory;
+
+    private final List<long[]> fetches = new ArrayList<>();
+
+    @Test
+    void rangesWithoutBarsAreNotFetchedAgain() {
+        CandleStore store = new CandleStore(directory);
+
+        assertEquals(10, store.load("AAPL", "D", 0, LISTED + 9 * DAY, fetcher()).join().size());
+        assertEquals(1, fetches.size());
+        assertArrayEquals(new long[]{0, LISTED + 9 * DAY}, store.coverage("AAPL", "D"));
+
+        // a new instance reads the coverage back from the file
+        CandleStore reopened = new CandleStore(directory);
+        assertEquals(10, reopened.load("AAPL", "D", 0, LISTED + 9 * DAY, fetcher()).join().size());
+        assertEquals(5, reopened.load("AAPL", "D", 50 * DAY, LISTED + 4 * DAY, fetcher()).join().size());
+        assertEquals(1, fetches.size());
+    }
+
+    @Test
+    void headAndTailExtendTheCoverage() {
+        CandleStore store = new CandleStore(directory);
+        store.load("AAPL", "D", LISTED + 5 * DAY, LISTED + 9 * DAY, fetcher()).join();
+
+        CandleSeries loaded = store.load("AAPL", "D", 0, LISTED + 19 * DAY, fetcher()).join();
+
+        assertEquals(20, loaded.size());
+        assertEquals(LISTED, loaded.time(0));
+        assertArrayEquals(new long[]{0, LISTED + 5 * DAY - 1}, fetches.get(1));
+        // the tail starts at the last stored bar, which may have been incomplete
+        assertArrayEquals(new long[]{LISTED + 9 * DAY, LISTED + 19 * DAY}, fetches.get(2));
+        assertArrayEquals(new long[]{0, LISTED + 19 * DAY}, store.coverage("AAPL", "D"));
+
+        store.load("AAPL", "D", 0, LISTED + 19 * DAY, fetcher()).join();
+        assertEquals(3, fetches.size());
+    }
+
+    /**
+     * Daily bars of a symbol listed on day 100, with none after day 119.
+     */
+    private BiFunction<Long, Long, CompletableFuture<CandleSeries>> fetcher() {
+        return (from, to) -> {
+            fetches.add(new long[]{from, to});
+            CandleSeries.Builder builder = CandleSeries.builder(16);
+            for (long time = Math.max(from, LISTED); time <= Math.min(to, LISTED + 19 * DAY); time += DAY) {
+                builder.add(time, 1, 2, 0.5, 1.5, 100);
+            }
+            return CompletableFuture.completedFuture(builder.build());
+        };
+    }
+}
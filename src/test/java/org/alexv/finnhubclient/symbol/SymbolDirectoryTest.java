@@ -0,0 +1,65 @@
+package org.alexv.finnhubclient.symbol;
+
+import org.alexv.finnhubclient.client.FinnhubClient;
+import org.alexv.finnhubclient.model.EnrichedSymbol;
+import org.alexv.finnhubclient.model.Exchange;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SymbolDirectoryTest {
+
+    private final List<CompletableFuture<Long>> streams = new CopyOnWriteArrayList<>();
+    private final FinnhubClient client = new FinnhubClient() {
+        @Override
+        public CompletableFuture<Long> streamSymbols(Exchange exchange, Consumer<? super EnrichedSymbol> consumer) {
+            CompletableFuture<Long> stream = new CompletableFuture<>();
+            streams.add(stream);
+            return stream;
+        }
+    };
+
+    @Test
+    void lookupsAfterCloseFailWithoutLoading() {
+        SymbolDirectory directory = new SymbolDirectory(client, Duration.ZERO);
+        directory.close();
+
+        assertClosed(directory.index(Exchange.US_EXCHANGES));
+        assertClosed(directory.refresh(Exchange.US_EXCHANGES));
+        assertClosed(directory.typeahead(List.of(Exchange.US_EXCHANGES)));
+        assertEquals(0, streams.size());
+    }
+
+    @Test
+    void loadsInFlightDuringCloseAreDropped() throws Exception {
+        SymbolDirectory directory = new SymbolDirectory(client, Duration.ZERO);
+        CompletableFuture<SymbolIndex> first = directory.index(Exchange.US_EXCHANGES);
+        streams.get(0).complete(0L);
+        first.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<SymbolIndex> refreshed = directory.refresh(Exchange.US_EXCHANGES);
+        CompletableFuture<SymbolIndex> loading = directory.index(Exchange.ASX);
+        directory.close();
+        streams.forEach(stream -> stream.complete(0L));
+
+        assertClosed(refreshed);
+        assertClosed(loading);
+        assertClosed(directory.index(Exchange.US_EXCHANGES));
+        assertEquals(3, streams.size());
+    }
+
+    private static void assertClosed(CompletableFuture<?> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+}